@@ -0,0 +1,84 @@
+package org.rental.analytics;
+
+/**
+ * Reservations of the cars of one type, copied into columns of epoch minutes and grouped by car.
+ * <p>
+ * The columns are filled in two passes: the reservations of every car are counted first, then added into the
+ * range reserved for the car. Each car owns its own counters and range, so different cars may be counted and
+ * added on different threads as long as every car is handled by one thread per pass. Reservations beyond a
+ * car's count are left out.
+ */
+public class CarReservations {
+    private final int carCount;
+    private final int activeCars;
+    private final int[] counts;
+    private int[] offsets;
+    private int[] filled;
+    private long[] starts;
+    private long[] ends;
+
+    /**
+     * @param activeCars cars in service, which utilization is relative to
+     */
+    public CarReservations(int carCount, int activeCars) {
+        this.carCount = carCount;
+        this.activeCars = activeCars;
+        this.counts = new int[carCount];
+    }
+
+    public int getCarCount() {
+        return carCount;
+    }
+
+    public int getActiveCars() {
+        return activeCars;
+    }
+
+    /**
+     * Counts one reservation of the car. Must be called before {@link #allocate}.
+     */
+    public void count(int car) {
+        counts[car]++;
+    }
+
+    /**
+     * Reserves room for the counted reservations.
+     */
+    public void allocate() {
+        offsets = new int[carCount + 1];
+        for (int car = 0; car < carCount; car++) {
+            offsets[car + 1] = offsets[car] + counts[car];
+        }
+        filled = new int[carCount];
+        starts = new long[offsets[carCount]];
+        ends = new long[offsets[carCount]];
+    }
+
+    /**
+     * Adds a reservation of the car, given as the epoch minutes it starts at and ends before.
+     * Must be called after {@link #allocate}.
+     */
+    public void add(int car, long start, long end) {
+        int slot = filled[car]++;
+        if (slot < counts[car]) {
+            starts[offsets[car] + slot] = start;
+            ends[offsets[car] + slot] = end;
+        }
+    }
+
+    int firstOf(int car) {
+        return offsets[car];
+    }
+
+    int sizeOf(int car) {
+        return Math.min(filled[car], counts[car]);
+    }
+
+    long[] starts() {
+        return starts;
+    }
+
+    long[] ends() {
+        return ends;
+    }
+}
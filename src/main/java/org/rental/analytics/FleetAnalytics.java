@@ -0,0 +1,153 @@
+package org.rental.analytics;
+
+import lombok.experimental.UtilityClass;
+import org.rental.metrics.LogHistogram;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes {@link UtilizationReport}s on the common fork-join pool, splitting the fleet into ranges of cars.
+ * <p>
+ * Every range is summed into its own per-day and per-hour counters, which are added up as ranges are joined, so
+ * cars are processed without any shared state. The cars in service at a full hour are counted with one increment
+ * where a reservation starts covering full hours and one decrement where it stops, summed up once at the end.
+ */
+@UtilityClass
+public class FleetAnalytics {
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int CARS_PER_TASK = 1024;
+
+    /**
+     * Reports on the reservations between the start of the first and the end of the last day, both inclusive.
+     * Sorts the reservations of every car in place.
+     */
+    public UtilizationReport report(CarReservations reservations, LocalDate from, LocalDate to) {
+        Range range = new Range(from.toEpochDay() * MINUTES_PER_DAY, (int) (to.toEpochDay() - from.toEpochDay() + 1));
+        Totals totals = ForkJoinPool.commonPool().invoke(new CarsTask(reservations, range, 0, reservations.getCarCount()));
+
+        int[] peakCars = new int[range.days];
+        long reserved = 0;
+        for (int hour = 0; hour < range.days * HOURS_PER_DAY; hour++) {
+            reserved += totals.coverageChanges[hour];
+            int day = hour / HOURS_PER_DAY;
+            peakCars[day] = (int) Math.max(peakCars[day], reserved);
+        }
+        return new UtilizationReport(from, to, reservations.getActiveCars(), totals.reservations,
+                totals.idleGaps.snapshot(), totals.reservedMinutes, peakCars);
+    }
+
+    /**
+     * @param start epoch minute the first day starts at
+     */
+    private record Range(long start, int days) {
+        long end() {
+            return start + (long) days * MINUTES_PER_DAY;
+        }
+    }
+
+    private static final class Totals {
+        private final long[] reservedMinutes;
+        /**
+         * Change in the number of reserved cars at each full hour, with one more entry for the hour after the range.
+         */
+        private final long[] coverageChanges;
+        private final LogHistogram idleGaps = new LogHistogram();
+        private long reservations;
+
+        private Totals(Range range) {
+            reservedMinutes = new long[range.days];
+            coverageChanges = new long[range.days * HOURS_PER_DAY + 1];
+        }
+
+        private Totals add(Totals other) {
+            for (int day = 0; day < reservedMinutes.length; day++) {
+                reservedMinutes[day] += other.reservedMinutes[day];
+            }
+            for (int hour = 0; hour < coverageChanges.length; hour++) {
+                coverageChanges[hour] += other.coverageChanges[hour];
+            }
+            idleGaps.add(other.idleGaps);
+            reservations += other.reservations;
+            return this;
+        }
+    }
+
+    private static final class CarsTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final CarReservations reservations;
+        private final Range range;
+        private final int firstCar;
+        private final int endCar;
+
+        private CarsTask(CarReservations reservations, Range range, int firstCar, int endCar) {
+            this.reservations = reservations;
+            this.range = range;
+            this.firstCar = firstCar;
+            this.endCar = endCar;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (endCar - firstCar <= CARS_PER_TASK) {
+                Totals totals = new Totals(range);
+                for (int car = firstCar; car < endCar; car++) {
+                    addCar(car, totals);
+                }
+                return totals;
+            }
+            int middle = (firstCar + endCar) >>> 1;
+            CarsTask upper = new CarsTask(reservations, range, middle, endCar);
+            upper.fork();
+            Totals lower = new CarsTask(reservations, range, firstCar, middle).compute();
+            return lower.add(upper.join());
+        }
+
+        /**
+         * The reservations of a car never overlap, so sorting their starts and ends separately keeps them paired.
+         */
+        private void addCar(int car, Totals totals) {
+            int first = reservations.firstOf(car);
+            int end = first + reservations.sizeOf(car);
+            long[] starts = reservations.starts();
+            long[] ends = reservations.ends();
+            Arrays.sort(starts, first, end);
+            Arrays.sort(ends, first, end);
+            for (int i = first; i < end; i++) {
+                if (i > first) {
+                    totals.idleGaps.record(starts[i] - ends[i - 1]);
+                }
+                long start = Math.max(starts[i], range.start);
+                long stop = Math.min(ends[i], range.end());
+                if (start >= stop) {
+                    continue;
+                }
+                totals.reservations++;
+                addReservedMinutes(start, stop, totals.reservedMinutes);
+                int firstHour = (int) ceilDiv(start - range.start, MINUTES_PER_HOUR);
+                int endHour = (int) ceilDiv(stop - range.start, MINUTES_PER_HOUR);
+                if (firstHour < endHour) {
+                    totals.coverageChanges[firstHour]++;
+                    totals.coverageChanges[endHour]--;
+                }
+            }
+        }
+
+        private void addReservedMinutes(long start, long stop, long[] reservedMinutes) {
+            int lastDay = (int) ((stop - 1 - range.start) / MINUTES_PER_DAY);
+            for (int day = (int) ((start - range.start) / MINUTES_PER_DAY); day <= lastDay; day++) {
+                long dayStart = range.start + (long) day * MINUTES_PER_DAY;
+                reservedMinutes[day] += Math.min(stop, dayStart + MINUTES_PER_DAY) - Math.max(start, dayStart);
+            }
+        }
+
+        private static long ceilDiv(long value, long divisor) {
+            return -Math.floorDiv(-value, divisor);
+        }
+    }
+}
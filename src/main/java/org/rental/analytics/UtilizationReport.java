@@ -0,0 +1,85 @@
+package org.rental.analytics;
+
+import lombok.Getter;
+import org.rental.metrics.HistogramSnapshot;
+
+import java.time.LocalDate;
+
+/**
+ * Utilization of the cars of one type over a range of days.
+ * <p>
+ * The utilization of a day is the share of the minutes of all cars in service that are reserved. Its peak
+ * occupancy is the largest share of those cars reserved at the same time, sampled at every full hour.
+ * Idle gaps are the minutes between consecutive reservations of a car.
+ */
+public class UtilizationReport {
+    @Getter
+    private final LocalDate from;
+    @Getter
+    private final LocalDate to;
+    @Getter
+    private final int activeCars;
+    @Getter
+    private final long reservationCount;
+    /**
+     * Minutes between consecutive reservations of the same car, over all cars.
+     */
+    @Getter
+    private final HistogramSnapshot idleGaps;
+    private final long[] reservedMinutes;
+    private final int[] peakCars;
+
+    UtilizationReport(LocalDate from, LocalDate to, int activeCars, long reservationCount, HistogramSnapshot idleGaps,
+                      long[] reservedMinutes, int[] peakCars) {
+        this.from = from;
+        this.to = to;
+        this.activeCars = activeCars;
+        this.reservationCount = reservationCount;
+        this.idleGaps = idleGaps;
+        this.reservedMinutes = reservedMinutes;
+        this.peakCars = peakCars;
+    }
+
+    /**
+     * Returns the reserved share of the minutes of the cars in service on the day, or 0 outside the range.
+     */
+    public double utilization(LocalDate day) {
+        int index = indexOf(day);
+        return index < 0 || activeCars == 0 ? 0 : (double) reservedMinutes[index] / ((long) activeCars * FleetAnalytics.MINUTES_PER_DAY);
+    }
+
+    /**
+     * Returns the largest number of cars reserved at a full hour of the day, or 0 outside the range.
+     */
+    public int peakCars(LocalDate day) {
+        int index = indexOf(day);
+        return index < 0 ? 0 : peakCars[index];
+    }
+
+    /**
+     * Returns the largest share of the cars in service reserved at a full hour of the day, or 0 outside the range.
+     */
+    public double peakOccupancy(LocalDate day) {
+        return activeCars == 0 ? 0 : (double) peakCars(day) / activeCars;
+    }
+
+    /**
+     * Returns the first day with the highest peak occupancy in the range.
+     */
+    public LocalDate getPeakDay() {
+        int peak = 0;
+        for (int index = 1; index < peakCars.length; index++) {
+            if (peakCars[index] > peakCars[peak]) {
+                peak = index;
+            }
+        }
+        return from.plusDays(peak);
+    }
+
+    private int indexOf(LocalDate day) {
+        if (day.isBefore(from) || day.isAfter(to)) {
+            return -1;
+        }
+        return (int) (day.toEpochDay() - from.toEpochDay());
+    }
+}
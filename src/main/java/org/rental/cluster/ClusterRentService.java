@@ -0,0 +1,153 @@
+package org.rental.cluster;
+
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Router spreading the fleet over several partitions, each served by its own {@link RentService} behind a
+ * {@link Transport}.
+ * <p>
+ * A booking goes first to the partition owning the type and start hour of the request, so requests for the same
+ * time meet on one partition, and on to the other partitions of the type in turn while they are full. Reservation
+ * ids are made unique across the cluster by encoding the partition in them. Batch bookings are not offered,
+ * as booking all or nothing across partitions would need a commit protocol between them.
+ */
+public class ClusterRentService implements Closeable {
+    private final PartitionLayout layout;
+    private final Transport transport;
+    private final Map<CarType, int[]> partitionsByType = new EnumMap<>(CarType.class);
+
+    public ClusterRentService(PartitionLayout layout, Transport transport) {
+        this.layout = layout;
+        this.transport = transport;
+        for (CarType type : CarType.values()) {
+            partitionsByType.put(type, layout.partitionsOf(type));
+        }
+    }
+
+    /**
+     * Starts a cluster of in-process partitions sharing one configuration, connected by a {@link LoopbackTransport}.
+     *
+     * @throws IllegalArgumentException if the configuration names a journal or snapshot file, which every
+     *                                  partition would then replay and overwrite; use a configuration per partition
+     */
+    public static ClusterRentService startLocal(Map<CarType, Integer> carLimits, int partitions, RentServiceConfig config) {
+        if (config.getJournal() != null || config.getSnapshot() != null) {
+            throw new IllegalArgumentException("Partitions cannot share a journal or snapshot file");
+        }
+        return startLocal(carLimits, partitions, partition -> config);
+    }
+
+    /**
+     * Starts a cluster of in-process partitions connected by a {@link LoopbackTransport}, each configured by the
+     * given function of its partition number, so every partition can keep its own journal and snapshot.
+     */
+    public static ClusterRentService startLocal(Map<CarType, Integer> carLimits, int partitions,
+                                                IntFunction<RentServiceConfig> configOf) {
+        PartitionLayout layout = PartitionLayout.of(carLimits, partitions);
+        List<RentService> nodes = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            nodes.add(new RentService(layout.carLimitsOf(partition), configOf.apply(partition)));
+        }
+        return new ClusterRentService(layout, new LoopbackTransport(nodes));
+    }
+
+    public Result rentCar(CarType type, LocalDateTime start, int days) {
+        int[] partitions = type == null ? new int[0] : partitionsByType.get(type);
+        if (partitions.length == 0 || start == null) {
+            return new Result(false);
+        }
+        NodeRequest.RentCar request = new NodeRequest.RentCar(type, start, days);
+        long startHour = Math.floorDiv(start.toEpochSecond(ZoneOffset.UTC), 3600);
+        int owner = Math.floorMod(PartitionLayout.mix(type.ordinal(), startHour), partitions.length);
+        for (int attempt = 0; attempt < partitions.length; attempt++) {
+            int partition = partitions[(owner + attempt) % partitions.length];
+            Result result = call(partition, request);
+            if (result.isSuccessful()) {
+                return new Result(true, toClusterId(partition, result.getReservationId()), result.getPrice());
+            }
+        }
+        return new Result(false);
+    }
+
+    public Result cancelReservation(long reservationId) {
+        return forward(reservationId, NodeRequest.CancelReservation::new);
+    }
+
+    public Result modifyReservation(long reservationId, int days) {
+        return forward(reservationId, localId -> new NodeRequest.ModifyReservation(localId, days));
+    }
+
+    /**
+     * Sums the free cars of all partitions holding the type, asking them in parallel.
+     */
+    public int countFreeCars(CarType type, LocalDateTime from, LocalDateTime to) {
+        if (type == null) {
+            return 0;
+        }
+        NodeRequest.CountFreeCars request = new NodeRequest.CountFreeCars(type, from, to);
+        List<CompletableFuture<Integer>> counts = new ArrayList<>();
+        for (int partition : partitionsByType.get(type)) {
+            counts.add(transport.send(partition, request));
+        }
+        int free = 0;
+        for (CompletableFuture<Integer> count : counts) {
+            free += join(count);
+        }
+        return free;
+    }
+
+    public PartitionLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+    }
+
+    private Result forward(long reservationId, LongFunction<NodeRequest<Result>> request) {
+        if (reservationId <= Result.NO_RESERVATION) {
+            return new Result(false);
+        }
+        int partition = (int) (reservationId % layout.getPartitionCount());
+        Result result = call(partition, request.apply(reservationId / layout.getPartitionCount()));
+        return result.isSuccessful() ? new Result(true, reservationId) : result;
+    }
+
+    /**
+     * Local ids start at one on every partition, so the partition fits below them without collisions.
+     */
+    private long toClusterId(int partition, long localId) {
+        return localId * layout.getPartitionCount() + partition;
+    }
+
+    private Result call(int partition, NodeRequest<Result> request) {
+        return join(transport.send(partition, request));
+    }
+
+    private static <T> T join(CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
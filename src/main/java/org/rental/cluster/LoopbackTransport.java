@@ -0,0 +1,35 @@
+package org.rental.cluster;
+
+import org.rental.service.RentService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport to nodes living in the same JVM, running every request on the sending thread.
+ * Nodes share no state but the heap, so a whole cluster can be started and tested in one process.
+ */
+public class LoopbackTransport implements Transport {
+    private final List<RentService> nodes;
+
+    public LoopbackTransport(List<RentService> nodes) {
+        this.nodes = List.copyOf(nodes);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> send(int node, NodeRequest<R> request) {
+        if (node < 0 || node >= nodes.size()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown node " + node));
+        }
+        try {
+            return CompletableFuture.completedFuture(request.handle(nodes.get(node)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        nodes.forEach(RentService::close);
+    }
+}
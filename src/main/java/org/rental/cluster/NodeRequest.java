@@ -0,0 +1,49 @@
+package org.rental.cluster;
+
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request a router sends to the {@link RentService} of one partition. Requests are plain values,
+ * so a transport between processes can serialize them.
+ *
+ * @param <R> type of the response
+ */
+public sealed interface NodeRequest<R> {
+
+    /**
+     * Runs the request against the partition's service.
+     */
+    R handle(RentService service);
+
+    record RentCar(CarType type, LocalDateTime start, int days) implements NodeRequest<Result> {
+        @Override
+        public Result handle(RentService service) {
+            return service.rentCar(type, start, days);
+        }
+    }
+
+    record CancelReservation(long reservationId) implements NodeRequest<Result> {
+        @Override
+        public Result handle(RentService service) {
+            return service.cancelReservation(reservationId);
+        }
+    }
+
+    record ModifyReservation(long reservationId, int days) implements NodeRequest<Result> {
+        @Override
+        public Result handle(RentService service) {
+            return service.modifyReservation(reservationId, days);
+        }
+    }
+
+    record CountFreeCars(CarType type, LocalDateTime from, LocalDateTime to) implements NodeRequest<Integer> {
+        @Override
+        public Integer handle(RentService service) {
+            return service.countFreeCars(type, from, to);
+        }
+    }
+}
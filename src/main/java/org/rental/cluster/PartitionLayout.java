@@ -0,0 +1,76 @@
+package org.rental.cluster;
+
+import org.rental.util.CarType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assignment of the cars of a fleet to partitions. Car {@code i} of a type lives on the partition its
+ * hashed type and number select, so every partition gets a share of each type without coordination.
+ */
+public class PartitionLayout {
+    private final List<Map<CarType, Integer>> carLimits;
+    private final Map<CarType, int[]> partitionsByType = new EnumMap<>(CarType.class);
+
+    private PartitionLayout(List<Map<CarType, Integer>> carLimits) {
+        this.carLimits = carLimits;
+        for (CarType type : CarType.values()) {
+            int[] owners = new int[carLimits.size()];
+            int count = 0;
+            for (int partition = 0; partition < carLimits.size(); partition++) {
+                if (carLimits.get(partition).getOrDefault(type, 0) > 0) {
+                    owners[count++] = partition;
+                }
+            }
+            if (count > 0) {
+                partitionsByType.put(type, Arrays.copyOf(owners, count));
+            }
+        }
+    }
+
+    public static PartitionLayout of(Map<CarType, Integer> carLimits, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("A cluster needs at least one partition");
+        }
+        List<Map<CarType, Integer>> perPartition = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            perPartition.add(new EnumMap<>(CarType.class));
+        }
+        for (Map.Entry<CarType, Integer> limit : carLimits.entrySet()) {
+            for (int car = 0; car < limit.getValue(); car++) {
+                int partition = Math.floorMod(mix(limit.getKey().ordinal(), car), partitions);
+                perPartition.get(partition).merge(limit.getKey(), 1, Integer::sum);
+            }
+        }
+        return new PartitionLayout(perPartition);
+    }
+
+    public int getPartitionCount() {
+        return carLimits.size();
+    }
+
+    /**
+     * Returns the number of cars of each type the partition holds.
+     */
+    public Map<CarType, Integer> carLimitsOf(int partition) {
+        return Map.copyOf(carLimits.get(partition));
+    }
+
+    /**
+     * Returns the partitions holding cars of the type, in ascending order; empty if none does.
+     */
+    public int[] partitionsOf(CarType type) {
+        int[] owners = partitionsByType.get(type);
+        return owners == null ? new int[0] : owners.clone();
+    }
+
+    static int mix(int first, long second) {
+        long hash = first * 0x9E3779B97F4A7C15L + second;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return (int) (hash ^ (hash >>> 33));
+    }
+}
@@ -0,0 +1,18 @@
+package org.rental.cluster;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Carries requests from a router to the nodes of a cluster, numbered from zero.
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Sends the request to the node and completes with its response, or exceptionally if the node cannot be reached.
+     */
+    <R> CompletableFuture<R> send(int node, NodeRequest<R> request);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,15 @@
+package org.rental.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+@Getter
+public class BookingRequest {
+    private final CarType type;
+    private final LocalDateTime start;
+    private final int days;
+}
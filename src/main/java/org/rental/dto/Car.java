@@ -1,18 +1,95 @@
 package org.rental.dto;
 
-import lombok.Getter;
+import org.rental.storage.IntervalTreeReservationStore;
+import org.rental.storage.ReservationStore;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-@Getter
+/**
+ * A car and its reservations.
+ * <p>
+ * Cars of a large fleet are mostly idle, so a car created with a store factory holds only its id until it is
+ * reserved for the first time, and creates its reservation store then.
+ */
 public abstract class Car {
-    private final TreeSet<Reservation> reservations;
+    public static final int NO_ID = -1;
+
+    private final int id;
+    private final Supplier<ReservationStore> storeFactory;
+    private ReservationStore reservations;
 
     public Car() {
-        this.reservations = new TreeSet<>();
+        this(new IntervalTreeReservationStore());
+    }
+
+    public Car(ReservationStore reservations) {
+        this.id = NO_ID;
+        this.storeFactory = null;
+        this.reservations = Objects.requireNonNull(reservations, "reservation store is missing");
+    }
+
+    /**
+     * Creates a car that has no reservation store until its first reservation.
+     *
+     * @param id           position of the car within the fleet of its type
+     * @param storeFactory creates the reservation store of the car
+     */
+    public Car(int id, Supplier<ReservationStore> storeFactory) {
+        this.id = id;
+        this.storeFactory = Objects.requireNonNull(storeFactory, "reservation store factory is missing");
+    }
+
+    /**
+     * Returns the position of the car within the fleet of its type, or {@link #NO_ID} for a car outside any fleet.
+     */
+    public int getId() {
+        return id;
     }
 
     public boolean makeReservation(Reservation newReservation) {
+        if (reservations == null) {
+            reservations = storeFactory.get();
+        }
         return reservations.add(newReservation);
     }
+
+    public boolean cancelReservation(Reservation reservation) {
+        return reservations != null && reservations.remove(reservation);
+    }
+
+    public boolean isFree(Reservation reservation) {
+        return reservations == null || reservations.isFree(reservation);
+    }
+
+    /**
+     * Returns true if {@link #removeEndedBefore(LocalDateTime, Consumer)} would remove the given reservation.
+     */
+    public boolean endsBefore(Reservation reservation, LocalDateTime cutoff) {
+        return reservations == null
+                ? reservation.getEnd().isBefore(cutoff)
+                : reservations.endsBefore(reservation, cutoff);
+    }
+
+    /**
+     * Removes the reservations that ended before the cutoff, handing each one to the sink.
+     *
+     * @return the number of removed reservations
+     */
+    public int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink) {
+        return reservations == null ? 0 : reservations.removeEndedBefore(cutoff, sink);
+    }
+
+    public List<Reservation> getReservations() {
+        return reservations == null ? List.of() : reservations.toList();
+    }
+
+    /**
+     * Returns the reservations overlapping the range, ordered by start time.
+     */
+    public List<Reservation> getReservations(Reservation range) {
+        return reservations == null ? List.of() : reservations.overlapping(range);
+    }
 }
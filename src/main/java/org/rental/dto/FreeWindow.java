@@ -0,0 +1,13 @@
+package org.rental.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+@Getter
+public class FreeWindow {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
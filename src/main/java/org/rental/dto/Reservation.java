@@ -1,12 +1,17 @@
 package org.rental.dto;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Objects;
 
 @Getter
+@EqualsAndHashCode
 public class Reservation implements Comparable<Reservation> {
+    private static final LocalTime LAST_MINUTE = LocalTime.of(23, 59);
+
     private final LocalDateTime start;
     private final LocalDateTime end;
 
@@ -17,12 +22,21 @@ public class Reservation implements Comparable<Reservation> {
             throw new IllegalArgumentException("Reservation duration cannot be a negative number");
         } else if (days == 0) {
             //return same day at midnight
-            this.end = LocalDateTime.of(start.getYear(), start.getMonth(), start.getDayOfMonth(), 23, 59);
+            this.end = start.toLocalDate().atTime(LAST_MINUTE);
         } else {
             this.end = start.plusDays(days);
         }
     }
 
+    public Reservation(LocalDateTime start, LocalDateTime end) {
+        this.start = Objects.requireNonNull(start, "start date is missing");
+        this.end = Objects.requireNonNull(end, "end date is missing");
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Reservation cannot end before it starts");
+        }
+    }
+
     boolean isBefore(Reservation other) {
         return this.end.isBefore(other.start);
     }
@@ -31,14 +45,20 @@ public class Reservation implements Comparable<Reservation> {
         return this.start.isAfter(other.end);
     }
 
+    /**
+     * Returns true if the reservations share at least one instant; both ends are included.
+     */
+    public boolean overlaps(Reservation other) {
+        return !isBefore(other) && !isAfter(other);
+    }
+
+    /**
+     * Orders reservations by start, then by end. Overlapping reservations are not equal, so the order is
+     * total and sorted collections can hold them; conflicts are checked with {@link #overlaps}.
+     */
     @Override
     public int compareTo(Reservation other) {
-        if (this.isBefore(other)) {
-            return -1;
-        } else if (this.isAfter(other)) {
-            return 1;
-        } else {
-            return 0;
-        }
+        int byStart = start.compareTo(other.start);
+        return byStart != 0 ? byStart : end.compareTo(other.end);
     }
 }
@@ -1,10 +1,26 @@
 package org.rental.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public class Result {
+    public static final long NO_RESERVATION = 0;
+    public static final long NO_PRICE = 0;
+
     private final boolean isSuccessful;
+    private final long reservationId;
+    /**
+     * Price of the booked rental in minor currency units, or {@link #NO_PRICE} if the service does not price rentals.
+     */
+    private final long price;
+
+    public Result(boolean isSuccessful) {
+        this(isSuccessful, NO_RESERVATION);
+    }
+
+    public Result(boolean isSuccessful, long reservationId) {
+        this(isSuccessful, reservationId, NO_PRICE);
+    }
 }
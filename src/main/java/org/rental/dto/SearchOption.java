@@ -0,0 +1,22 @@
+package org.rental.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A car that was free for a searched request, at the start it was free from.
+ */
+@RequiredArgsConstructor
+@Getter
+public class SearchOption {
+    private final CarType type;
+    private final Car car;
+    private final LocalDateTime start;
+    /**
+     * Days between the requested start and this one, negative if earlier.
+     */
+    private final int shiftDays;
+}
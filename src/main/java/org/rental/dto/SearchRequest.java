@@ -0,0 +1,34 @@
+package org.rental.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A booking request that may be moved by whole days or served by another car type.
+ */
+@Builder
+@Getter
+public class SearchRequest {
+    private final CarType type;
+    private final LocalDateTime start;
+    private final int days;
+    /**
+     * Number of days the start may move earlier or later.
+     */
+    private final int toleranceDays;
+    /**
+     * Types acceptable instead of the preferred one, most acceptable first.
+     */
+    @Singular
+    private final List<CarType> alternatives;
+    /**
+     * Maximum number of options to return.
+     */
+    @Builder.Default
+    private final int limit = 1;
+}
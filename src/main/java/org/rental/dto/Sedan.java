@@ -1,4 +1,19 @@
 package org.rental.dto;
 
+import org.rental.storage.ReservationStore;
+
+import java.util.function.Supplier;
+
 public class Sedan extends Car {
+
+    public Sedan() {
+    }
+
+    public Sedan(ReservationStore reservations) {
+        super(reservations);
+    }
+
+    public Sedan(int id, Supplier<ReservationStore> storeFactory) {
+        super(id, storeFactory);
+    }
 }
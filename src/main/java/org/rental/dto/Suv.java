@@ -1,4 +1,19 @@
 package org.rental.dto;
 
+import org.rental.storage.ReservationStore;
+
+import java.util.function.Supplier;
+
 public class Suv extends Car {
+
+    public Suv() {
+    }
+
+    public Suv(ReservationStore reservations) {
+        super(reservations);
+    }
+
+    public Suv(int id, Supplier<ReservationStore> storeFactory) {
+        super(id, storeFactory);
+    }
 }
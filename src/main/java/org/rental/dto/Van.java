@@ -1,4 +1,19 @@
 package org.rental.dto;
 
+import org.rental.storage.ReservationStore;
+
+import java.util.function.Supplier;
+
 public class Van extends Car {
+
+    public Van() {
+    }
+
+    public Van(ReservationStore reservations) {
+        super(reservations);
+    }
+
+    public Van(int id, Supplier<ReservationStore> storeFactory) {
+        super(id, storeFactory);
+    }
 }
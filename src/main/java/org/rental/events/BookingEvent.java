@@ -0,0 +1,22 @@
+package org.rental.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.rental.persistence.JournalRecord;
+
+/**
+ * A change of the fleet state at its position in the event stream.
+ */
+@RequiredArgsConstructor
+@Getter
+public class BookingEvent {
+    /**
+     * Position in the stream, starting at 0 and increasing by one per event.
+     */
+    private final long sequence;
+    /**
+     * The change, as it is recorded in the journal, or null for a sequence abandoned by its producer. Subscribers
+     * are never handed an abandoned sequence.
+     */
+    private final JournalRecord change;
+}
@@ -0,0 +1,117 @@
+package org.rental.events;
+
+import org.rental.persistence.JournalRecord;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, multi-subscriber ring of the latest booking events.
+ * <p>
+ * Producers claim a sequence number with one atomic increment and store the event in the slot of that sequence,
+ * overwriting the event one ring length older. A store only ever replaces an older sequence, so a producer delayed
+ * between claiming and storing cannot overwrite a newer event that has wrapped into its slot; its own event is
+ * then dropped and counted as missed like any overwritten one. Producers never wait for subscribers: each
+ * subscriber reads through its own {@link EventSubscription} cursor, and one that falls a ring length behind skips
+ * the overwritten events and is told how many it missed. An event carries its sequence, so a reader recognises
+ * from the slot alone whether its event is not yet published, present, or already overwritten.
+ * A producer that cannot publish the change it claimed a sequence for abandons the sequence instead, leaving a
+ * tombstone that subscribers step over, so they never wait at a sequence that will not be published.
+ */
+public class EventRing {
+    private final AtomicReferenceArray<BookingEvent> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+
+    public EventRing(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Appends the change to the stream.
+     *
+     * @return the sequence of its event
+     */
+    public long publish(JournalRecord change) {
+        long sequence = claim();
+        publish(sequence, change);
+        return sequence;
+    }
+
+    /**
+     * Reserves the next sequence, so its place in the stream is fixed before the change is published with
+     * {@link #publish(long, JournalRecord)}. Subscribers wait at a claimed sequence until it is published.
+     */
+    public long claim() {
+        return claimed.getAndIncrement();
+    }
+
+    /**
+     * Publishes the change under a sequence claimed before, unless a newer event already took its slot.
+     */
+    public void publish(long sequence, JournalRecord change) {
+        store(new BookingEvent(sequence, Objects.requireNonNull(change, "change is missing")));
+    }
+
+    /**
+     * Gives up a sequence claimed before without publishing a change, so subscribers skip it.
+     */
+    public void abandon(long sequence) {
+        store(new BookingEvent(sequence, null));
+    }
+
+    private void store(BookingEvent event) {
+        long sequence = event.getSequence();
+        int slot = (int) sequence & mask;
+        BookingEvent current = slots.get(slot);
+        while (current == null || current.getSequence() < sequence) {
+            if (slots.compareAndSet(slot, current, event)) {
+                return;
+            }
+            current = slots.get(slot);
+        }
+    }
+
+    /**
+     * Returns the sequence the next published event will get.
+     */
+    public long getNextSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Subscribes to the events published from now on.
+     */
+    public EventSubscription subscribe() {
+        return subscribe(getNextSequence());
+    }
+
+    /**
+     * Subscribes from the given sequence, replaying the events from there that the ring still holds.
+     */
+    public EventSubscription subscribe(long fromSequence) {
+        return new EventSubscription(this, Math.max(0, fromSequence));
+    }
+
+    /**
+     * Returns the event of the sequence, or null if it has not been published yet or was already overwritten.
+     */
+    BookingEvent get(long sequence) {
+        BookingEvent event = slots.get((int) sequence & mask);
+        return event != null && event.getSequence() == sequence ? event : null;
+    }
+
+    /**
+     * Returns the oldest sequence the ring can still hold an event of.
+     */
+    long oldestRetained() {
+        return Math.max(0, claimed.get() - getCapacity());
+    }
+}
@@ -0,0 +1,68 @@
+package org.rental.events;
+
+import java.util.function.Consumer;
+
+/**
+ * Cursor of one subscriber on an {@link EventRing}, delivering events strictly in sequence order.
+ * Not thread-safe; each subscriber polls from a single thread.
+ */
+public class EventSubscription {
+    private final EventRing ring;
+    private long position;
+    private long missed;
+
+    EventSubscription(EventRing ring, long position) {
+        this.ring = ring;
+        this.position = position;
+    }
+
+    /**
+     * Hands up to the given number of events to the handler, stopping early at an event not yet published.
+     * Events overwritten before they were read are skipped and counted as missed; abandoned sequences are skipped.
+     *
+     * @return the number of events handed over
+     */
+    public int poll(int maxEvents, Consumer<BookingEvent> handler) {
+        int delivered = 0;
+        while (delivered < maxEvents && position < ring.getNextSequence()) {
+            BookingEvent event = ring.get(position);
+            if (event == null) {
+                long oldest = ring.oldestRetained();
+                if (position >= oldest) {
+                    // claimed but not yet stored by its producer
+                    break;
+                }
+                missed += oldest - position;
+                position = oldest;
+                continue;
+            }
+            position++;
+            if (event.getChange() != null) {
+                handler.accept(event);
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Returns the sequence of the next event to be handed over.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of events published but not yet handed over.
+     */
+    public long getLag() {
+        return Math.max(0, ring.getNextSequence() - position);
+    }
+
+    /**
+     * Returns the number of events skipped because the ring overwrote them before they were read.
+     */
+    public long getMissed() {
+        return missed;
+    }
+}
@@ -0,0 +1,60 @@
+package org.rental.metrics;
+
+import org.rental.util.CarType;
+
+/**
+ * Receives measurements from the booking path of a rent service. Implementations are called concurrently from
+ * every booking thread and must not block.
+ */
+public interface BookingMetrics {
+    /**
+     * Ignores every measurement. The service skips taking timestamps altogether when it is configured.
+     */
+    BookingMetrics DISABLED = new BookingMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordAccepted(CarType type) {
+        }
+
+        @Override
+        public void recordRejected(CarType type, RejectReason reason) {
+        }
+
+        @Override
+        public void recordProbes(CarType type, int cars) {
+        }
+
+        @Override
+        public void recordLatency(CarType type, long nanos) {
+        }
+
+        @Override
+        public void recordLockWait(CarType type, long nanos) {
+        }
+    };
+
+    boolean isEnabled();
+
+    void recordAccepted(CarType type);
+
+    void recordRejected(CarType type, RejectReason reason);
+
+    /**
+     * Records how many cars were tried before a booking was placed or given up.
+     */
+    void recordProbes(CarType type, int cars);
+
+    /**
+     * Records the time a single booking took from the call until its result was known.
+     */
+    void recordLatency(CarType type, long nanos);
+
+    /**
+     * Records the time a change waited for the guard of its car, or for the writer of its type to pick it up.
+     */
+    void recordLockWait(CarType type, long nanos);
+}
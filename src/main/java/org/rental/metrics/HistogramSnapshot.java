@@ -0,0 +1,54 @@
+package org.rental.metrics;
+
+import lombok.Getter;
+
+/**
+ * Immutable copy of the counts of a {@link LogHistogram}.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    @Getter
+    private final long count;
+    @Getter
+    private final long max;
+    private final double total;
+
+    HistogramSnapshot(long[] counts, long max) {
+        this.counts = counts;
+        this.max = max;
+        long count = 0;
+        double total = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            count += counts[bucket];
+            total += (double) counts[bucket] * LogHistogram.highestValueIn(bucket);
+        }
+        this.count = count;
+        this.total = total;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the counted values lie, or 0 if none were counted.
+     * The value is the upper bound of its bucket, so it overestimates by at most the bucket width.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, LogHistogram.highestValueIn(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the mean of the counted values, estimated from their buckets.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : total / count;
+    }
+}
@@ -0,0 +1,74 @@
+package org.rental.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free histogram of non-negative values with log-linear buckets, in the manner of an HDR histogram.
+ * <p>
+ * Values below 16 are counted exactly. Above that every power of two is split into 16 buckets of equal width,
+ * so a value is known to within about 6% over the whole range of {@code long} while the histogram takes a
+ * fixed 960 counters. Recording is one atomic increment and never allocates.
+ */
+public class LogHistogram {
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Counts the value; negative values are counted as zero.
+     */
+    public void record(long value) {
+        long bounded = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(bounded));
+        max.accumulate(bounded);
+    }
+
+    /**
+     * Adds the counts of the other histogram to this one.
+     */
+    public void add(LogHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = other.counts.get(bucket);
+            if (count != 0) {
+                counts.addAndGet(bucket, count);
+            }
+        }
+        max.accumulate(other.max.get());
+    }
+
+    /**
+     * Copies the counts. Values recorded concurrently may or may not be part of the copy.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = counts.get(bucket);
+        }
+        return new HistogramSnapshot(copy, max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value counted in the bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,50 @@
+package org.rental.metrics;
+
+import lombok.extern.java.Log;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Periodically exports {@link RecordingMetrics} to a sink on a background thread.
+ * An export that fails is logged and the next one runs as scheduled.
+ */
+@Log
+public class MetricsReporter implements Closeable {
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsReporter(RecordingMetrics metrics, MetricsSink sink, Duration interval) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(() -> export(metrics, sink), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Exports without letting a failure escape, as it would cancel all later exports.
+     */
+    private static void export(RecordingMetrics metrics, MetricsSink sink) {
+        try {
+            metrics.exportTo(sink);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Exporting metrics failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.rental.metrics;
+
+/**
+ * Destination of exported booking metrics, such as a log or a monitoring system.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+    /**
+     * Called once per car type on every export.
+     */
+    void export(MetricsSnapshot snapshot);
+}
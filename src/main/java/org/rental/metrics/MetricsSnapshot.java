@@ -0,0 +1,25 @@
+package org.rental.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.rental.util.CarType;
+
+import java.util.Map;
+
+/**
+ * Measurements of the bookings of one car type since the metrics were created.
+ */
+@RequiredArgsConstructor
+@Getter
+public class MetricsSnapshot {
+    private final CarType type;
+    private final long accepted;
+    private final Map<RejectReason, Long> rejected;
+    private final HistogramSnapshot probes;
+    private final HistogramSnapshot latency;
+    private final HistogramSnapshot lockWait;
+
+    public long getRejectedTotal() {
+        return rejected.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
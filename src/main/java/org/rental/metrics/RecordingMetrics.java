@@ -0,0 +1,97 @@
+package org.rental.metrics;
+
+import org.rental.util.CarType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps booking measurements per car type in striped counters and {@link LogHistogram}s, so recording from many
+ * threads neither locks nor allocates. Measurements without a car type are not recorded.
+ */
+public class RecordingMetrics implements BookingMetrics {
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private final TypeMetrics[] types;
+
+    public RecordingMetrics() {
+        types = new TypeMetrics[CarType.values().length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = new TypeMetrics();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordAccepted(CarType type) {
+        if (type != null) {
+            types[type.ordinal()].accepted.increment();
+        }
+    }
+
+    @Override
+    public void recordRejected(CarType type, RejectReason reason) {
+        if (type != null) {
+            types[type.ordinal()].rejected[reason.ordinal()].increment();
+        }
+    }
+
+    @Override
+    public void recordProbes(CarType type, int cars) {
+        if (type != null) {
+            types[type.ordinal()].probes.record(cars);
+        }
+    }
+
+    @Override
+    public void recordLatency(CarType type, long nanos) {
+        if (type != null) {
+            types[type.ordinal()].latency.record(nanos);
+        }
+    }
+
+    @Override
+    public void recordLockWait(CarType type, long nanos) {
+        if (type != null) {
+            types[type.ordinal()].lockWait.record(nanos);
+        }
+    }
+
+    public MetricsSnapshot snapshot(CarType type) {
+        TypeMetrics metrics = types[type.ordinal()];
+        Map<RejectReason, Long> rejected = new EnumMap<>(RejectReason.class);
+        for (RejectReason reason : REASONS) {
+            rejected.put(reason, metrics.rejected[reason.ordinal()].sum());
+        }
+        return new MetricsSnapshot(type, metrics.accepted.sum(), rejected, metrics.probes.snapshot(),
+                metrics.latency.snapshot(), metrics.lockWait.snapshot());
+    }
+
+    /**
+     * Passes a snapshot of every car type to the sink.
+     */
+    public void exportTo(MetricsSink sink) {
+        for (CarType type : CarType.values()) {
+            sink.export(snapshot(type));
+        }
+    }
+
+    private static final class TypeMetrics {
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder[] rejected = new LongAdder[REASONS.length];
+        private final LogHistogram probes = new LogHistogram();
+        private final LogHistogram latency = new LogHistogram();
+        private final LogHistogram lockWait = new LogHistogram();
+
+        private TypeMetrics() {
+            for (int i = 0; i < rejected.length; i++) {
+                rejected[i] = new LongAdder();
+            }
+        }
+    }
+}
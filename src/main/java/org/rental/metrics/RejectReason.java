@@ -0,0 +1,23 @@
+package org.rental.metrics;
+
+/**
+ * Why a booking request was turned down.
+ */
+public enum RejectReason {
+    /**
+     * The request has no start or starts before the current time.
+     */
+    PAST_START,
+    /**
+     * The fleet has no cars of the requested type.
+     */
+    UNKNOWN_TYPE,
+    /**
+     * No car of the type is free for the whole requested time.
+     */
+    NO_CAPACITY,
+    /**
+     * The request asks for a negative number of days.
+     */
+    INVALID_DURATION
+}
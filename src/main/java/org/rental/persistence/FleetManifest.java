@@ -0,0 +1,56 @@
+package org.rental.persistence;
+
+import lombok.experimental.UtilityClass;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * List of the cars of a fleet, one car type per line, to create a {@code RentService} from.
+ * <p>
+ * Cars are numbered by their order among the cars of their type, which is all a car is identified by until it is
+ * reserved, so loading a fleet only has to count the cars of every type.
+ */
+@UtilityClass
+public class FleetManifest {
+
+    /**
+     * Reads the car types listed in the file, skipping blank lines.
+     *
+     * @return number of cars per type
+     * @throws IllegalArgumentException if a line does not name a car type
+     */
+    public Map<CarType, Integer> read(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return count(lines.map(String::strip)
+                    .filter(line -> !line.isEmpty())
+                    .map(CarType::valueOf)
+                    .iterator());
+        }
+    }
+
+    /**
+     * Counts the cars supplied, for example from a fleet database.
+     *
+     * @return number of cars per type
+     */
+    public Map<CarType, Integer> count(Iterator<CarType> cars) {
+        int[] counts = new int[CarType.values().length];
+        while (cars.hasNext()) {
+            counts[cars.next().ordinal()]++;
+        }
+        Map<CarType, Integer> carLimits = new EnumMap<>(CarType.class);
+        for (CarType type : CarType.values()) {
+            if (counts[type.ordinal()] > 0) {
+                carLimits.put(type, counts[type.ordinal()]);
+            }
+        }
+        return carLimits;
+    }
+}
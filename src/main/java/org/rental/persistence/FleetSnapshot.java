@@ -0,0 +1,174 @@
+package org.rental.persistence;
+
+import lombok.experimental.UtilityClass;
+import org.rental.util.CarType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Columnar binary image of the reservations of a whole fleet.
+ * <p>
+ * For each car type the file holds the number of reservations of every car and a retired flag per car, followed
+ * by one column per field (reservation id, start seconds, start nanos, end seconds, end nanos) across all
+ * reservations of the type. A snapshot records
+ * the journal sequence number it was taken at, so only the journal tail after it has to be replayed, and the
+ * highest reservation id handed out by then, so ids of cancelled or expired reservations are not handed out again.
+ */
+@UtilityClass
+public class FleetSnapshot {
+    private static final int MAGIC = 0x52534E50;
+    private static final int VERSION = 4;
+    private static final int HEADER_SIZE = 28;
+
+    /**
+     * Writes the snapshot to a temporary file and atomically moves it over the target.
+     *
+     * @param lastReservationId highest reservation id handed out when the snapshot was taken
+     * @param reservations      reservations of every car, per type, in fleet order
+     * @param retired           positions of the retired cars per type
+     */
+    public void write(Path file, long journalSequence, long lastReservationId,
+                      Map<CarType, List<List<JournalRecord>>> reservations, Map<CarType, BitSet> retired)
+            throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(journalSequence);
+            out.writeLong(lastReservationId);
+            out.writeInt(reservations.size());
+            for (Map.Entry<CarType, List<List<JournalRecord>>> type : reservations.entrySet()) {
+                List<List<JournalRecord>> cars = type.getValue();
+                out.writeInt(type.getKey().ordinal());
+                out.writeInt(cars.size());
+                for (List<JournalRecord> car : cars) {
+                    out.writeInt(car.size());
+                }
+                BitSet retiredCars = retired.getOrDefault(type.getKey(), new BitSet());
+                for (int car = 0; car < cars.size(); car++) {
+                    out.writeByte(retiredCars.get(car) ? 1 : 0);
+                }
+                for (List<JournalRecord> car : cars) {
+                    for (JournalRecord reservation : car) {
+                        out.writeLong(reservation.getReservation());
+                    }
+                }
+                for (List<JournalRecord> car : cars) {
+                    for (JournalRecord reservation : car) {
+                        out.writeLong(reservation.getStart().toEpochSecond(ZoneOffset.UTC));
+                    }
+                }
+                for (List<JournalRecord> car : cars) {
+                    for (JournalRecord reservation : car) {
+                        out.writeInt(reservation.getStart().getNano());
+                    }
+                }
+                for (List<JournalRecord> car : cars) {
+                    for (JournalRecord reservation : car) {
+                        out.writeLong(reservation.getEnd().toEpochSecond(ZoneOffset.UTC));
+                    }
+                }
+                for (List<JournalRecord> car : cars) {
+                    for (JournalRecord reservation : car) {
+                        out.writeInt(reservation.getEnd().getNano());
+                    }
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot through memory-mapped columns. For every type the consumer first gets a
+     * {@link JournalRecord.Kind#CAR_ADDED} record for the last car and a {@link JournalRecord.Kind#CAR_RETIRED}
+     * record for every retired car, then every reservation as a {@link JournalRecord.Kind#RESERVED} record.
+     * Snapshots do not keep the time of fleet changes, so those records carry {@link LocalDateTime#MIN}.
+     *
+     * @return where the snapshot was taken in the journal and in the reservation ids
+     */
+    public Position read(Path file, Consumer<JournalRecord> consumer) throws IOException {
+        CarType[] types = CarType.values();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a fleet snapshot");
+            }
+            Position position = new Position(header.getLong(), header.getLong());
+            int typeCount = header.getInt();
+
+            long offset = HEADER_SIZE;
+            for (int t = 0; t < typeCount; t++) {
+                ByteBuffer typeHeader = channel.map(FileChannel.MapMode.READ_ONLY, offset, 8);
+                CarType type = types[typeHeader.getInt()];
+                int carCount = typeHeader.getInt();
+                offset += 8;
+
+                ByteBuffer counts = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) carCount * Integer.BYTES);
+                offset += (long) carCount * Integer.BYTES;
+                long total = 0;
+                for (int car = 0; car < carCount; car++) {
+                    total += counts.getInt(car * Integer.BYTES);
+                }
+                ByteBuffer retiredFlags = channel.map(FileChannel.MapMode.READ_ONLY, offset, carCount);
+                offset += carCount;
+                if (carCount > 0) {
+                    consumer.accept(fleetRecord(JournalRecord.Kind.CAR_ADDED, type, carCount - 1));
+                }
+                for (int car = 0; car < carCount; car++) {
+                    if (retiredFlags.get(car) != 0) {
+                        consumer.accept(fleetRecord(JournalRecord.Kind.CAR_RETIRED, type, car));
+                    }
+                }
+
+                ByteBuffer ids = channel.map(FileChannel.MapMode.READ_ONLY, offset, total * Long.BYTES);
+                offset += total * Long.BYTES;
+                ByteBuffer startSeconds = channel.map(FileChannel.MapMode.READ_ONLY, offset, total * Long.BYTES);
+                offset += total * Long.BYTES;
+                ByteBuffer startNanos = channel.map(FileChannel.MapMode.READ_ONLY, offset, total * Integer.BYTES);
+                offset += total * Integer.BYTES;
+                ByteBuffer endSeconds = channel.map(FileChannel.MapMode.READ_ONLY, offset, total * Long.BYTES);
+                offset += total * Long.BYTES;
+                ByteBuffer endNanos = channel.map(FileChannel.MapMode.READ_ONLY, offset, total * Integer.BYTES);
+                offset += total * Integer.BYTES;
+
+                for (int car = 0; car < carCount; car++) {
+                    int reservations = counts.getInt();
+                    for (int i = 0; i < reservations; i++) {
+                        LocalDateTime start = LocalDateTime.ofEpochSecond(startSeconds.getLong(), startNanos.getInt(), ZoneOffset.UTC);
+                        LocalDateTime end = LocalDateTime.ofEpochSecond(endSeconds.getLong(), endNanos.getInt(), ZoneOffset.UTC);
+                        consumer.accept(new JournalRecord(JournalRecord.Kind.RESERVED, type, car, ids.getLong(), start, end));
+                    }
+                }
+            }
+            return position;
+        }
+    }
+
+    /**
+     * @param journalSequence   journal sequence number the snapshot was taken at
+     * @param lastReservationId highest reservation id handed out by then
+     */
+    public record Position(long journalSequence, long lastReservationId) {
+    }
+
+    private JournalRecord fleetRecord(JournalRecord.Kind kind, CarType type, int car) {
+        return new JournalRecord(kind, type, car, 0, LocalDateTime.MIN, LocalDateTime.MIN);
+    }
+}
@@ -0,0 +1,19 @@
+package org.rental.persistence;
+
+/**
+ * When {@link ReservationJournal} forces appended records to disk.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every append waits until its record is on disk. Concurrent appends share one fsync (group commit).
+     */
+    EVERY_COMMIT,
+    /**
+     * Records are written and forced to disk by a background flush every interval.
+     */
+    PERIODIC,
+    /**
+     * Records are written by a background flush every interval and left to the operating system to persist.
+     */
+    NONE
+}
@@ -0,0 +1,32 @@
+package org.rental.persistence;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single change of the fleet state as stored in the {@link ReservationJournal}.
+ * Cars are identified by their type and position in the fleet, reservations by the id they were booked under.
+ * Records of fleet changes carry no reservation id and the time of the change as start and end.
+ */
+@RequiredArgsConstructor
+@Getter
+public class JournalRecord {
+    private final Kind kind;
+    private final CarType type;
+    private final int car;
+    private final long reservation;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public enum Kind {
+        RESERVED,
+        MODIFIED,
+        CANCELLED,
+        CAR_ADDED,
+        CAR_RETIRED,
+        EXPIRED
+    }
+}
@@ -0,0 +1,391 @@
+package org.rental.persistence;
+
+import org.rental.util.CarType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead log of fleet changes, stored as fixed-size binary records.
+ * <p>
+ * Appends are collected in an in-memory buffer. With {@link FsyncPolicy#EVERY_COMMIT} the first waiting appender
+ * writes and forces everything collected so far while later appenders fill a second buffer, so concurrent commits
+ * share one fsync. Other policies flush from a background thread.
+ * <p>
+ * A record that was only partly written before a crash fails its checksum; it and everything after it are dropped
+ * when the journal is opened.
+ * <p>
+ * Every record has a sequence number. The file header holds the sequence number of its first record, so
+ * {@link #compact(long)} can drop records already covered by a snapshot without renumbering the rest.
+ */
+public class ReservationJournal implements Closeable {
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 42;
+    private static final int MAGIC = 0x524A524E;
+    private static final int VERSION = 2;
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - Integer.BYTES;
+    private static final int BUFFER_RECORDS = 4096;
+    private static final long MAX_MAPPED_BYTES = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+
+    private final Path file;
+    private final FsyncPolicy policy;
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+    private long baseSequence;
+    private long replayEnd;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE);
+    private long appended;
+    private long written;
+    private boolean flushing;
+    private IOException failure;
+
+    public ReservationJournal(Path file, FsyncPolicy policy, Duration flushInterval) throws IOException {
+        this.file = file;
+        this.policy = policy;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader(channel, 0);
+        }
+        this.baseSequence = readHeader(channel);
+        long length = validLength();
+        this.replayEnd = baseSequence + (length - HEADER_SIZE) / RECORD_SIZE;
+        channel.truncate(length);
+        channel.position(length);
+
+        if (policy == FsyncPolicy.EVERY_COMMIT) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reservation-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = flushInterval.toNanos();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads the records that were in the journal when it was opened, in append order,
+     * using sequential memory-mapped reads.
+     */
+    public void replay(Consumer<JournalRecord> consumer) throws IOException {
+        replay(baseSequence, consumer);
+    }
+
+    /**
+     * Reads the records that were in the journal when it was opened, starting at the given sequence number.
+     */
+    public void replay(long fromSequence, Consumer<JournalRecord> consumer) throws IOException {
+        CarType[] types = CarType.values();
+        JournalRecord.Kind[] kinds = JournalRecord.Kind.values();
+        long from = HEADER_SIZE + Math.max(0, fromSequence - baseSequence) * RECORD_SIZE;
+        long to = HEADER_SIZE + (replayEnd - baseSequence) * RECORD_SIZE;
+        for (long offset = from; offset < to; offset += MAX_MAPPED_BYTES) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(MAX_MAPPED_BYTES, to - offset));
+            while (buffer.hasRemaining()) {
+                JournalRecord.Kind kind = kinds[buffer.get()];
+                CarType type = types[buffer.get()];
+                int car = buffer.getInt();
+                long reservation = buffer.getLong();
+                LocalDateTime start = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                LocalDateTime end = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+                buffer.getInt();
+                consumer.accept(new JournalRecord(kind, type, car, reservation, start, end));
+            }
+        }
+    }
+
+    /**
+     * Returns the sequence number the next appended record will get.
+     */
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return replayEnd + appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the record to the journal. With {@link FsyncPolicy#EVERY_COMMIT} returns once the record is on disk.
+     *
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public void append(JournalRecord record) {
+        awaitDurable(enqueue(record));
+    }
+
+    /**
+     * Adds the record to the journal without waiting for it to reach the disk, so its place in the journal can be
+     * fixed under a guard that should not be held during an fsync. Waits only while both buffers are full.
+     *
+     * @return the sequence number of the record, to pass to {@link #awaitDurable}
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public long enqueue(JournalRecord record) {
+        lock.lock();
+        try {
+            while (pending.remaining() < RECORD_SIZE) {
+                awaitOrLeadFlush();
+            }
+            encode(record, pending);
+            return replayEnd + appended++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * With {@link FsyncPolicy#EVERY_COMMIT} returns once the record with the sequence number is on disk, together
+     * with every record enqueued before it. Other policies return right away.
+     *
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public void awaitDurable(long sequence) {
+        if (policy != FsyncPolicy.EVERY_COMMIT) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (replayEnd + written <= sequence) {
+                awaitOrLeadFlush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and forces all appended records to disk.
+     */
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            long target = appended;
+            while (written < target) {
+                awaitOrLeadFlush();
+            }
+            channel.force(false);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops all records with a sequence number below the given one by copying the remaining tail into a new file
+     * that atomically replaces the journal. Appends wait while the tail is copied.
+     */
+    public void compact(long beforeSequence) throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            written = appended;
+
+            long end = replayEnd + appended;
+            long keepFrom = Math.min(Math.max(beforeSequence, baseSequence), end);
+            if (keepFrom == baseSequence) {
+                channel.force(false);
+                return;
+            }
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(target, keepFrom);
+                long from = HEADER_SIZE + (keepFrom - baseSequence) * RECORD_SIZE;
+                long count = (end - keepFrom) * RECORD_SIZE;
+                for (long copied = 0; copied < count; ) {
+                    copied += channel.transferTo(from + copied, count - copied, target);
+                }
+                target.force(true);
+            }
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            baseSequence = keepFrom;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushQuietly() {
+        lock.lock();
+        try {
+            if (!flushing && pending.position() > 0) {
+                leadFlush();
+            }
+        } catch (UncheckedIOException e) {
+            // kept in failure and rethrown to the next appender
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitOrLeadFlush() {
+        if (failure != null) {
+            throw new UncheckedIOException("Reservation journal is not writable", failure);
+        }
+        if (flushing) {
+            flushed.awaitUninterruptibly();
+        } else {
+            leadFlush();
+        }
+    }
+
+    /**
+     * Writes the pending buffer with the lock released, so other appenders can fill the spare buffer meanwhile.
+     * Must be called holding the lock.
+     */
+    private void leadFlush() {
+        flushing = true;
+        ByteBuffer batch = pending;
+        long batchEnd = appended;
+        pending = spare;
+        lock.unlock();
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (policy != FsyncPolicy.NONE) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+            spare = batch.clear();
+            flushing = false;
+            if (error == null) {
+                written = batchEnd;
+            } else {
+                failure = error;
+            }
+            flushed.signalAll();
+        }
+        if (error != null) {
+            throw new UncheckedIOException("Reservation journal is not writable", error);
+        }
+    }
+
+    private static void writeHeader(FileChannel target, long firstSequence) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(firstSequence);
+        header.flip();
+        target.write(header, 0);
+        target.position(HEADER_SIZE);
+        target.force(false);
+    }
+
+    private static long readHeader(FileChannel source) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && source.read(header, header.position()) >= 0) {
+            // keep reading until the header is complete
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a reservation journal");
+        }
+        return header.getLong();
+    }
+
+    /**
+     * Returns the length of the file up to the first incomplete or corrupted record.
+     */
+    private long validLength() throws IOException {
+        long length = channel.size() - (channel.size() - HEADER_SIZE) % RECORD_SIZE;
+        CRC32 crc = new CRC32();
+        for (long offset = HEADER_SIZE; offset < length; offset += MAX_MAPPED_BYTES) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(MAX_MAPPED_BYTES, length - offset));
+            while (buffer.hasRemaining()) {
+                int recordStart = buffer.position();
+                crc.reset();
+                buffer.limit(recordStart + PAYLOAD_SIZE);
+                crc.update(buffer);
+                buffer.limit(buffer.capacity());
+                if ((int) crc.getValue() != buffer.getInt() || !isKnown(buffer, recordStart)) {
+                    return offset + recordStart;
+                }
+            }
+        }
+        return length;
+    }
+
+    private static boolean isKnown(ByteBuffer buffer, int recordStart) {
+        byte kind = buffer.get(recordStart);
+        byte type = buffer.get(recordStart + 1);
+        return kind >= 0 && kind < JournalRecord.Kind.values().length && type >= 0 && type < CarType.values().length;
+    }
+
+    private void encode(JournalRecord record, ByteBuffer buffer) {
+        int recordStart = buffer.position();
+        buffer.put((byte) record.getKind().ordinal());
+        buffer.put((byte) record.getType().ordinal());
+        buffer.putInt(record.getCar());
+        buffer.putLong(record.getReservation());
+        buffer.putLong(record.getStart().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(record.getStart().getNano());
+        buffer.putLong(record.getEnd().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(record.getEnd().getNano());
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(recordStart).limit(recordStart + PAYLOAD_SIZE));
+        buffer.putInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,15 @@
+package org.rental.pricing;
+
+import org.rental.util.CarType;
+
+import java.time.LocalDate;
+
+/**
+ * Share of the cars of a type that are reserved on a day, between 0 and 1.
+ */
+@FunctionalInterface
+public interface FleetOccupancy {
+    FleetOccupancy NONE = (type, day) -> 0.0;
+
+    double occupancy(CarType type, LocalDate day);
+}
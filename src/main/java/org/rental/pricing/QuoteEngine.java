@@ -0,0 +1,93 @@
+package org.rental.pricing;
+
+import org.rental.dto.BookingRequest;
+import org.rental.util.CarType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices rentals from per-type prefix sums of the daily rates of a {@link RateCard}.
+ * <p>
+ * The tables cover a fixed horizon of days, so the base price of any range within it is the difference of two
+ * table entries, and length discounts are looked up by number of days. A quote therefore costs the same for a
+ * rental of one day and of a month; only days outside the horizon are priced one by one.
+ */
+public class QuoteEngine {
+    private static final CarType[] TYPES = CarType.values();
+
+    private final RateCard card;
+    private final long firstDay;
+    private final int horizonDays;
+    private final long[][] prefixSums;
+    private final double[] discountByDays;
+
+    public QuoteEngine(RateCard card, LocalDate firstDay, int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Horizon must cover at least one day");
+        }
+        this.card = card;
+        this.firstDay = firstDay.toEpochDay();
+        this.horizonDays = horizonDays;
+        this.prefixSums = new long[TYPES.length][horizonDays + 1];
+        for (CarType type : TYPES) {
+            long[] sums = prefixSums[type.ordinal()];
+            for (int day = 0; day < horizonDays; day++) {
+                sums[day + 1] = sums[day] + card.dailyRate(type, firstDay.plusDays(day));
+            }
+        }
+        int longestTier = card.getLengthDiscounts().keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        this.discountByDays = new double[Math.max(1, longestTier) + 1];
+        for (Map.Entry<Integer, Double> discount : card.getLengthDiscounts().entrySet()) {
+            for (int days = Math.max(0, discount.getKey()); days < discountByDays.length; days++) {
+                discountByDays[days] = Math.max(discountByDays[days], discount.getValue());
+            }
+        }
+    }
+
+    /**
+     * Quotes a rental of the given number of days from the start, as booked by {@code RentService.rentCar}.
+     * A rental of zero days is charged as one day.
+     *
+     * @param occupancy share of the type's cars already reserved, driving the surge
+     */
+    public long quote(CarType type, LocalDateTime start, int days, double occupancy) {
+        int charged = Math.max(1, days);
+        long base = basePrice(type, start.toLocalDate().toEpochDay(), charged);
+        double discount = discountByDays[Math.min(charged, discountByDays.length - 1)];
+        return Math.round(base * (1 - discount) * card.surge(occupancy));
+    }
+
+    /**
+     * Quotes every request, with the occupancy of its type on its first day.
+     *
+     * @return one price per request, in request order
+     */
+    public long[] quoteAll(List<BookingRequest> requests, FleetOccupancy occupancy) {
+        long[] prices = new long[requests.size()];
+        for (int i = 0; i < prices.length; i++) {
+            BookingRequest request = requests.get(i);
+            prices[i] = quote(request.getType(), request.getStart(), request.getDays(),
+                    occupancy.occupancy(request.getType(), request.getStart().toLocalDate()));
+        }
+        return prices;
+    }
+
+    private long basePrice(CarType type, long startDay, int days) {
+        long[] sums = prefixSums[type.ordinal()];
+        long from = startDay - firstDay;
+        long to = from + days;
+        if (from >= 0 && to <= horizonDays) {
+            return sums[(int) to] - sums[(int) from];
+        }
+        long price = 0;
+        for (long day = from; day < to; day++) {
+            price += day >= 0 && day < horizonDays
+                    ? sums[(int) day + 1] - sums[(int) day]
+                    : card.dailyRate(type, LocalDate.ofEpochDay(firstDay + day));
+        }
+        return price;
+    }
+}
@@ -0,0 +1,111 @@
+package org.rental.pricing;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.rental.util.CarType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tariff the {@link QuoteEngine} prices rentals by. Amounts are in minor currency units.
+ * <p>
+ * The price of a day is the base rate of the car type times the multiplier of its month, and times the weekend
+ * multiplier on Saturdays and Sundays. A rental of at least as many days as a length discount names is reduced by
+ * the largest such discount, and a surge raises it linearly from the surge threshold up to {@code maxSurge} at a
+ * fully occupied fleet.
+ */
+@Builder
+@Getter
+public class RateCard {
+    private final Map<CarType, Long> dailyRates;
+    private final Map<Month, Double> seasonalMultipliers;
+    @Builder.Default
+    private final double weekendMultiplier = 1.0;
+    /**
+     * Fraction taken off by the minimum number of days it applies from.
+     */
+    private final Map<Integer, Double> lengthDiscounts;
+    /**
+     * Occupancy of the car type, between 0 and 1, above which the surge starts.
+     */
+    @Builder.Default
+    private final double surgeThreshold = 1.0;
+    /**
+     * Fraction added at full occupancy.
+     */
+    @Builder.Default
+    private final double maxSurge = 0.0;
+
+    /**
+     * Returns the price of renting a car of the type on the day, before discounts and surge.
+     */
+    public long dailyRate(CarType type, LocalDate day) {
+        double rate = dailyRates.getOrDefault(type, 0L) * seasonalMultipliers.getOrDefault(day.getMonth(), 1.0);
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            rate *= weekendMultiplier;
+        }
+        return Math.round(rate);
+    }
+
+    /**
+     * Returns the factor a rental of the given occupancy is priced with, at least 1.
+     */
+    public double surge(double occupancy) {
+        if (maxSurge <= 0 || occupancy <= surgeThreshold) {
+            return 1.0;
+        }
+        double above = surgeThreshold >= 1 ? 1 : (occupancy - surgeThreshold) / (1 - surgeThreshold);
+        return 1 + maxSurge * Math.min(1, above);
+    }
+
+    /**
+     * Adds the map entries one at a time. The maps are written out rather than generated with {@code @Singular},
+     * whose generated code does not compile cleanly under {@code -Xlint}.
+     */
+    public static class RateCardBuilder {
+        private Map<CarType, Long> dailyRates = Map.of();
+        private Map<Month, Double> seasonalMultipliers = Map.of();
+        private Map<Integer, Double> lengthDiscounts = Map.of();
+
+        public RateCardBuilder dailyRate(CarType type, long rate) {
+            return dailyRates(Map.of(type, rate));
+        }
+
+        public RateCardBuilder dailyRates(Map<CarType, Long> rates) {
+            dailyRates = merged(dailyRates, rates);
+            return this;
+        }
+
+        public RateCardBuilder seasonalMultiplier(Month month, double multiplier) {
+            return seasonalMultipliers(Map.of(month, multiplier));
+        }
+
+        public RateCardBuilder seasonalMultipliers(Map<Month, Double> multipliers) {
+            seasonalMultipliers = merged(seasonalMultipliers, multipliers);
+            return this;
+        }
+
+        public RateCardBuilder lengthDiscount(int minDays, double discount) {
+            return lengthDiscounts(Map.of(minDays, discount));
+        }
+
+        public RateCardBuilder lengthDiscounts(Map<Integer, Double> discounts) {
+            lengthDiscounts = merged(lengthDiscounts, discounts);
+            return this;
+        }
+
+        /**
+         * Returns an immutable copy of the map with the entries added, so cards built earlier keep their maps.
+         */
+        private static <K, V> Map<K, V> merged(Map<K, V> map, Map<K, V> added) {
+            Map<K, V> merged = new HashMap<>(map);
+            merged.putAll(added);
+            return Map.copyOf(merged);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.rental.service;
+
+import org.rental.dto.Reservation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Decides in which order the cars of a type are offered a new reservation.
+ * The order is derived from the {@link AvailabilityIndex}, so no car's reservations are read while ranking.
+ */
+public enum AssignmentStrategy {
+    /**
+     * Cars in fleet order, as {@link RentService} has always assigned them.
+     */
+    FIRST_FIT {
+        @Override
+        PrimitiveIterator.OfInt candidates(AvailabilityIndex index, Reservation reservation, BitSet blocked) {
+            return new PrimitiveIterator.OfInt() {
+                private int next = blocked.nextClearBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < index.getCarCount();
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int car = next;
+                    next = blocked.nextClearBit(car + 1);
+                    return car;
+                }
+            };
+        }
+    },
+    /**
+     * Cars whose neighbouring reservations are closest to the requested range first, so long free stretches on
+     * other cars stay intact. Distances are counted in whole days, up to {@value #BEST_FIT_WINDOW_DAYS} on each side.
+     */
+    BEST_FIT {
+        @Override
+        PrimitiveIterator.OfInt candidates(AvailabilityIndex index, Reservation reservation, BitSet blocked) {
+            int[] gaps = new int[index.getCarCount()];
+            long startDay = reservation.getStart().toLocalDate().toEpochDay();
+            long endDay = reservation.getEnd().toLocalDate().toEpochDay();
+            addDistances(index, gaps, startDay, -1);
+            addDistances(index, gaps, endDay, 1);
+            return ranked(index, blocked, car -> gaps[car]);
+        }
+    },
+    /**
+     * Cars holding the fewest reservations first.
+     */
+    LEAST_LOADED {
+        @Override
+        PrimitiveIterator.OfInt candidates(AvailabilityIndex index, Reservation reservation, BitSet blocked) {
+            return ranked(index, blocked, index::load);
+        }
+    };
+
+    static final int BEST_FIT_WINDOW_DAYS = 14;
+
+    /**
+     * Returns the cars to offer the reservation to, in preference order. Blocked cars are never returned.
+     */
+    abstract PrimitiveIterator.OfInt candidates(AvailabilityIndex index, Reservation reservation, BitSet blocked);
+
+    /**
+     * Adds to each car the number of days between the given day and its nearest busy day in the given direction.
+     */
+    private static void addDistances(AvailabilityIndex index, int[] gaps, long fromDay, int direction) {
+        long[] found = new long[(index.getCarCount() + 63) >>> 6];
+        int[] distance = new int[index.getCarCount()];
+        Arrays.fill(distance, BEST_FIT_WINDOW_DAYS);
+        for (int d = 0; d < BEST_FIT_WINDOW_DAYS; d++) {
+            long[] busy = index.busyCars(fromDay + (long) d * direction);
+            for (int word = 0; word < found.length; word++) {
+                long newlyFound = busy[word] & ~found[word];
+                found[word] |= newlyFound;
+                while (newlyFound != 0) {
+                    distance[(word << 6) + Long.numberOfTrailingZeros(newlyFound)] = d;
+                    newlyFound &= newlyFound - 1;
+                }
+            }
+        }
+        for (int car = 0; car < gaps.length; car++) {
+            gaps[car] += distance[car];
+        }
+    }
+
+    private static PrimitiveIterator.OfInt ranked(AvailabilityIndex index, BitSet blocked,
+                                                  IntUnaryOperator score) {
+        long[] keys = new long[index.getCarCount() - blocked.cardinality()];
+        int size = 0;
+        for (int car = blocked.nextClearBit(0); car < index.getCarCount(); car = blocked.nextClearBit(car + 1)) {
+            keys[size++] = ((long) score.applyAsInt(car) << 32) | car;
+        }
+        Arrays.sort(keys, 0, size);
+        return Arrays.stream(keys, 0, size).mapToInt(key -> (int) key).iterator();
+    }
+}
@@ -0,0 +1,142 @@
+package org.rental.service;
+
+import org.rental.dto.BookingRequest;
+import org.rental.dto.Car;
+import org.rental.dto.FreeWindow;
+import org.rental.dto.Result;
+import org.rental.util.CarType;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front end of a {@link RentService}, running every request on its own executor thread.
+ * <p>
+ * At most {@code maxInFlight} requests are admitted at a time. A caller submitting beyond that waits up to the
+ * admission timeout for a request to finish, which slows producers down to the rate the service keeps up with;
+ * if none finishes in time the returned future fails with a {@link RejectedExecutionException}.
+ * <p>
+ * By default requests run on virtual threads when the runtime provides them and on a fixed pool of platform
+ * threads otherwise. The booking path only blocks on {@link java.util.concurrent.locks} locks,
+ * so it never pins the carrier thread of a virtual thread.
+ */
+public class AsyncRentService implements Closeable {
+    private final RentService service;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxInFlight;
+    private final Semaphore admission;
+    private final long admissionTimeoutNanos;
+
+    public AsyncRentService(RentService service, int maxInFlight, Duration admissionTimeout) {
+        this(service, maxInFlight, admissionTimeout, defaultExecutor(), true);
+    }
+
+    /**
+     * Runs requests on the given executor, which stays owned by the caller and is not shut down on {@link #close()}.
+     */
+    public AsyncRentService(RentService service, int maxInFlight, Duration admissionTimeout, ExecutorService executor) {
+        this(service, maxInFlight, admissionTimeout, executor, false);
+    }
+
+    private AsyncRentService(RentService service, int maxInFlight, Duration admissionTimeout,
+                             ExecutorService executor, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be admitted");
+        }
+        this.service = service;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.maxInFlight = maxInFlight;
+        this.admission = new Semaphore(maxInFlight);
+        this.admissionTimeoutNanos = admissionTimeout.toNanos();
+    }
+
+    public CompletableFuture<Result> rentCar(CarType type, LocalDateTime start, int days) {
+        return submit(() -> service.rentCar(type, start, days));
+    }
+
+    public CompletableFuture<List<Result>> rentCars(List<BookingRequest> requests) {
+        return submit(() -> service.rentCars(requests));
+    }
+
+    public CompletableFuture<Result> cancelReservation(long reservationId) {
+        return submit(() -> service.cancelReservation(reservationId));
+    }
+
+    public CompletableFuture<Result> modifyReservation(long reservationId, int days) {
+        return submit(() -> service.modifyReservation(reservationId, days));
+    }
+
+    public CompletableFuture<Integer> countFreeCars(CarType type, LocalDateTime from, LocalDateTime to) {
+        return submit(() -> service.countFreeCars(type, from, to));
+    }
+
+    public CompletableFuture<List<FreeWindow>> findFreeWindows(Car car, LocalDateTime from, LocalDateTime to) {
+        return submit(() -> service.findFreeWindows(car, from, to));
+    }
+
+    /**
+     * Returns the number of requests admitted but not yet completed.
+     */
+    public int getInFlight() {
+        return maxInFlight - admission.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> request) {
+        try {
+            if (!admission.tryAcquire(admissionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Too many requests in flight"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(request, executor)
+                    .whenComplete((result, failure) -> admission.release());
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Creates a virtual thread per task executor if the runtime supports it, looked up reflectively so the
+     * service still runs on runtimes without virtual threads.
+     */
+    private static ExecutorService defaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4, runnable -> {
+                Thread thread = new Thread(runnable, "rent-service-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
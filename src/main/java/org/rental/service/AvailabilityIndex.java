@@ -0,0 +1,512 @@
+package org.rental.service;
+
+import org.rental.dto.Car;
+import org.rental.dto.FreeWindow;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Day and hour bitmaps of the cars of one type.
+ * <p>
+ * The busy bitmaps mark cars with any reservation on the day and, together with the per-car reservation counts,
+ * let assignment strategies rank cars without looking at their reservations. The covered bitmaps mark the hours
+ * a single reservation of the car spans completely. A request conflicts with every car busy on a day it spans
+ * completely and with every car covering an hour it touches on its first and last day, so those cars are
+ * skipped without probing their reservations, whatever time of day the request starts at.
+ * <p>
+ * The busy hour bitmaps mark cars with any reservation within each hour and answer availability queries.
+ * Queries retry while an update is in progress, and if updates keep overlapping them they hold updates off
+ * for one last read, so they always see each booking either fully or not at all. Updates only add to striped
+ * counters and read a flag, so updates of different cars do not contend on a shared word or lock.
+ * <p>
+ * Bitmaps are sized for a capacity of whole 64-car words. An index for a larger fleet within that capacity shares
+ * the bitmaps of the index it was derived from, so cars can be added without copying them. Retired cars keep
+ * their position and are reported as blocked.
+ */
+class AvailabilityIndex {
+    private static final int HOURS_PER_DAY = 24;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int MAX_READ_ATTEMPTS = 16;
+
+    private final int carCount;
+    private final int carWords;
+    private final int words;
+    private final ConcurrentHashMap<Long, AtomicLongArray> busyDays;
+    private final ConcurrentHashMap<Long, AtomicLongArray> busyHours;
+    private final ConcurrentHashMap<Long, AtomicLongArray> coveredHours;
+    private final AtomicIntegerArray loads;
+    private final AtomicLongArray retired;
+    private final UpdateGate updates;
+
+    AvailabilityIndex(int carCount) {
+        this(carCount, (carCount + 63) >>> 6);
+    }
+
+    private AvailabilityIndex(int carCount, int words) {
+        this.carCount = carCount;
+        this.carWords = (carCount + 63) >>> 6;
+        this.words = words;
+        this.busyDays = new ConcurrentHashMap<>();
+        this.busyHours = new ConcurrentHashMap<>();
+        this.coveredHours = new ConcurrentHashMap<>();
+        this.loads = new AtomicIntegerArray(words << 6);
+        this.retired = new AtomicLongArray(words);
+        this.updates = new UpdateGate();
+    }
+
+    private AvailabilityIndex(int carCount, AvailabilityIndex shared) {
+        this.carCount = carCount;
+        this.carWords = (carCount + 63) >>> 6;
+        this.words = shared.words;
+        this.busyDays = shared.busyDays;
+        this.busyHours = shared.busyHours;
+        this.coveredHours = shared.coveredHours;
+        this.loads = shared.loads;
+        this.retired = shared.retired;
+        this.updates = shared.updates;
+    }
+
+    int getCarCount() {
+        return carCount;
+    }
+
+    /**
+     * Returns the number of cars this index and the ones derived by {@link #withCarCount} can hold.
+     */
+    int getCapacity() {
+        return words << 6;
+    }
+
+    /**
+     * Returns an index for a fleet grown within the capacity, sharing the bitmaps of this one.
+     */
+    AvailabilityIndex withCarCount(int newCarCount) {
+        if (newCarCount < carCount || newCarCount > getCapacity()) {
+            throw new IllegalArgumentException("Car count must be between " + carCount + " and " + getCapacity());
+        }
+        return new AvailabilityIndex(newCarCount, this);
+    }
+
+    /**
+     * Returns an index for a fleet beyond the capacity, with at least twice the capacity and a copy of all bitmaps.
+     * Must be called while no update runs, as updates made during the copy would be lost.
+     */
+    AvailabilityIndex grow(int newCarCount) {
+        AvailabilityIndex grown = new AvailabilityIndex(newCarCount, Math.max(words << 1, (newCarCount + 63) >>> 6));
+        copyWidened(busyDays, grown.busyDays, 1, grown.words);
+        copyWidened(busyHours, grown.busyHours, HOURS_PER_DAY, grown.words);
+        copyWidened(coveredHours, grown.coveredHours, HOURS_PER_DAY, grown.words);
+        for (int car = 0; car < carCount; car++) {
+            grown.loads.set(car, loads.get(car));
+        }
+        for (int i = 0; i < words; i++) {
+            grown.retired.set(i, retired.get(i));
+        }
+        return grown;
+    }
+
+    /**
+     * Permanently blocks the car from new reservations. Must be called while holding the lock of the car.
+     */
+    void markRetired(int car) {
+        retired.getAndAccumulate(car >>> 6, 1L << car, (current, mask) -> current | mask);
+    }
+
+    boolean isRetired(int car) {
+        return (retired.get(car >>> 6) & (1L << car)) != 0;
+    }
+
+    /**
+     * Returns retired cars and cars with a reservation that certainly overlaps the given one: any reservation on
+     * a day the given one spans completely, or one spanning an hour the given one touches on its other days.
+     */
+    BitSet blockedCars(Reservation reservation) {
+        long[] blocked = new long[carWords];
+        or(blocked, retired);
+        long firstFull = firstFullDay(reservation.getStart());
+        long lastFull = lastFullDay(reservation.getEnd());
+        long firstHour = epochHour(reservation.getStart());
+        long lastHour = epochHour(reservation.getEnd());
+        long last = lastDay(reservation);
+        for (long day = firstDay(reservation); day <= last; day++) {
+            if (day >= firstFull && day <= lastFull) {
+                or(blocked, busyDays.get(day));
+                continue;
+            }
+            AtomicLongArray bits = coveredHours.get(day);
+            if (bits != null) {
+                long from = Math.max(firstHour, day * HOURS_PER_DAY);
+                long to = Math.min(lastHour, day * HOURS_PER_DAY + HOURS_PER_DAY - 1);
+                for (long hour = from; hour <= to; hour++) {
+                    int offset = Math.floorMod(hour, HOURS_PER_DAY) * words;
+                    for (int i = 0; i < carWords; i++) {
+                        blocked[i] |= bits.get(offset + i);
+                    }
+                }
+            }
+        }
+        return BitSet.valueOf(withinFleet(blocked));
+    }
+
+    boolean isFullyBooked(BitSet blockedCars) {
+        return blockedCars.cardinality() >= carCount;
+    }
+
+    /**
+     * Returns the cars with a reservation on the given day.
+     */
+    long[] busyCars(long epochDay) {
+        long[] busy = new long[carWords];
+        or(busy, busyDays.get(epochDay));
+        return withinFleet(busy);
+    }
+
+    /**
+     * Returns the share of the active cars with a reservation on the given day, or 1 if no car is active.
+     */
+    double occupancy(long epochDay) {
+        long[] busy = busyCars(epochDay);
+        int busyCount = 0;
+        int retiredCount = 0;
+        for (int i = 0; i < carWords; i++) {
+            long retiredCars = retired.get(i);
+            busyCount += Long.bitCount(busy[i] & ~retiredCars);
+            retiredCount += Long.bitCount(retiredCars);
+        }
+        int active = carCount - retiredCount;
+        return active == 0 ? 1.0 : (double) busyCount / active;
+    }
+
+    /**
+     * Returns the number of reservations held by the car.
+     */
+    int load(int car) {
+        return loads.get(car);
+    }
+
+    /**
+     * Returns the number of active cars without any reservation in the hours touched by the given range.
+     */
+    int countFree(LocalDateTime from, LocalDateTime to) {
+        long firstHour = epochHour(from);
+        long lastHour = epochHour(to);
+        return readConsistent(() -> {
+            long[] busy = new long[carWords];
+            or(busy, retired);
+            for (long hour = firstHour; hour <= lastHour; hour++) {
+                AtomicLongArray bits = busyHours.get(Math.floorDiv(hour, HOURS_PER_DAY));
+                if (bits != null) {
+                    int offset = Math.floorMod(hour, HOURS_PER_DAY) * words;
+                    for (int i = 0; i < carWords; i++) {
+                        busy[i] |= bits.get(offset + i);
+                    }
+                }
+            }
+            withinFleet(busy);
+            int busyCount = 0;
+            for (long word : busy) {
+                busyCount += Long.bitCount(word);
+            }
+            return carCount - busyCount;
+        });
+    }
+
+    /**
+     * Returns the whole hours within the given range in which the car has no reservation, merged into windows.
+     */
+    List<FreeWindow> freeWindows(int car, LocalDateTime from, LocalDateTime to) {
+        long firstHour = epochHour(from);
+        long lastHour = epochHour(to);
+        return readConsistent(() -> {
+            List<FreeWindow> windows = new ArrayList<>();
+            long windowStart = Long.MIN_VALUE;
+            for (long hour = firstHour; hour <= lastHour + 1; hour++) {
+                boolean free = hour <= lastHour && !isBusy(car, hour);
+                if (free && windowStart == Long.MIN_VALUE) {
+                    windowStart = hour;
+                } else if (!free && windowStart != Long.MIN_VALUE) {
+                    LocalDateTime start = max(from, hourStart(windowStart));
+                    LocalDateTime end = min(to, hourStart(hour).minusNanos(1));
+                    windows.add(new FreeWindow(start, end));
+                    windowStart = Long.MIN_VALUE;
+                }
+            }
+            return windows;
+        });
+    }
+
+    void markReserved(int car, Reservation reservation) {
+        update(() -> reserve(car, reservation));
+    }
+
+    /**
+     * Reverts {@link #markReserved} once the reservation has been removed from the car.
+     * Reservations of one car never overlap, so no other reservation of the car covers the same whole days;
+     * the first and last day stay busy if another reservation of the car still touches them.
+     * Must be called while holding the lock of the car.
+     */
+    void markFree(int car, Reservation reservation, Car owner) {
+        update(() -> free(car, reservation, owner));
+    }
+
+    /**
+     * Replaces one reservation of the car by another in a single update, so queries never see the car
+     * without either of them. Must be called while holding the lock of the car, after the car holds the new one.
+     */
+    void markChanged(int car, Reservation previous, Reservation current, Car owner) {
+        update(() -> {
+            free(car, previous, owner);
+            reserve(car, current);
+        });
+    }
+
+    /**
+     * Drops the bitmaps of all days before the day of the cutoff.
+     */
+    void evictBefore(LocalDateTime cutoff) {
+        long cutoffDay = cutoff.toLocalDate().toEpochDay();
+        busyDays.keySet().removeIf(day -> day < cutoffDay);
+        busyHours.keySet().removeIf(day -> day < cutoffDay);
+        coveredHours.keySet().removeIf(day -> day < cutoffDay);
+    }
+
+    private void reserve(int car, Reservation reservation) {
+        set(busyDays, car, firstDay(reservation), lastDay(reservation));
+        long lastHour = epochHour(reservation.getEnd());
+        for (long hour = epochHour(reservation.getStart()); hour <= lastHour; hour++) {
+            setHour(busyHours, car, hour);
+        }
+        long lastFullHour = lastFullHour(reservation.getEnd());
+        for (long hour = firstFullHour(reservation.getStart()); hour <= lastFullHour; hour++) {
+            setHour(coveredHours, car, hour);
+        }
+        loads.incrementAndGet(car);
+    }
+
+    private void free(int car, Reservation reservation, Car owner) {
+        long firstFull = firstFullDay(reservation.getStart());
+        long lastFull = lastFullDay(reservation.getEnd());
+        long lastDay = lastDay(reservation);
+        for (long day = firstDay(reservation); day <= lastDay; day++) {
+            boolean fullDay = day >= firstFull && day <= lastFull;
+            if (fullDay || isDayFree(owner, day)) {
+                clear(busyDays, car, day, day);
+            }
+        }
+
+        long firstHour = epochHour(reservation.getStart());
+        long lastHour = epochHour(reservation.getEnd());
+        for (long hour = firstHour; hour <= lastHour; hour++) {
+            boolean inner = hour > firstHour && hour < lastHour;
+            if (inner || owner.isFree(new Reservation(hourStart(hour), hourStart(hour + 1).minusNanos(1)))) {
+                clearHour(busyHours, car, hour);
+            }
+        }
+        long lastFullHour = lastFullHour(reservation.getEnd());
+        for (long hour = firstFullHour(reservation.getStart()); hour <= lastFullHour; hour++) {
+            clearHour(coveredHours, car, hour);
+        }
+        loads.decrementAndGet(car);
+    }
+
+    private boolean isDayFree(Car owner, long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return owner.isFree(new Reservation(date.atStartOfDay(), date.atTime(LocalTime.MAX)));
+    }
+
+    private void update(Runnable change) {
+        updates.enter();
+        try {
+            change.run();
+        } finally {
+            updates.finished.increment();
+        }
+    }
+
+    /**
+     * Runs the reader until no update overlapped it. After a few attempts under constant updates it holds new
+     * updates off, waits for the running ones and reads once more.
+     */
+    private <T> T readConsistent(Supplier<T> reader) {
+        for (int attempt = 1; attempt <= MAX_READ_ATTEMPTS; attempt++) {
+            long finished = updates.finished.sum();
+            boolean quiet = updates.started.sum() == finished;
+            T result = reader.get();
+            if (quiet && updates.started.sum() == finished) {
+                return result;
+            }
+            Thread.onSpinWait();
+        }
+        return updates.holdingOff(reader);
+    }
+
+    private boolean isBusy(int car, long hour) {
+        AtomicLongArray bits = busyHours.get(Math.floorDiv(hour, HOURS_PER_DAY));
+        return bits != null
+                && (bits.get(Math.floorMod(hour, HOURS_PER_DAY) * words + (car >>> 6)) & (1L << car)) != 0;
+    }
+
+    private void setHour(ConcurrentHashMap<Long, AtomicLongArray> hours, int car, long hour) {
+        hours.computeIfAbsent(Math.floorDiv(hour, HOURS_PER_DAY), d -> new AtomicLongArray(HOURS_PER_DAY * words))
+                .getAndAccumulate(Math.floorMod(hour, HOURS_PER_DAY) * words + (car >>> 6), 1L << car,
+                        (current, mask) -> current | mask);
+    }
+
+    private void clearHour(ConcurrentHashMap<Long, AtomicLongArray> hours, int car, long hour) {
+        AtomicLongArray bits = hours.get(Math.floorDiv(hour, HOURS_PER_DAY));
+        if (bits != null) {
+            bits.getAndAccumulate(Math.floorMod(hour, HOURS_PER_DAY) * words + (car >>> 6), ~(1L << car),
+                    (current, mask) -> current & mask);
+        }
+    }
+
+    private void set(ConcurrentHashMap<Long, AtomicLongArray> days, int car, long first, long last) {
+        long bit = 1L << car;
+        for (long day = first; day <= last; day++) {
+            days.computeIfAbsent(day, d -> new AtomicLongArray(words))
+                    .getAndAccumulate(car >>> 6, bit, (current, mask) -> current | mask);
+        }
+    }
+
+    private void clear(ConcurrentHashMap<Long, AtomicLongArray> days, int car, long first, long last) {
+        long bit = 1L << car;
+        for (long day = first; day <= last; day++) {
+            AtomicLongArray bits = days.get(day);
+            if (bits != null) {
+                bits.getAndAccumulate(car >>> 6, ~bit, (current, mask) -> current & mask);
+            }
+        }
+    }
+
+    private void or(long[] target, AtomicLongArray bits) {
+        if (bits != null) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] |= bits.get(i);
+            }
+        }
+    }
+
+    /**
+     * Clears the bits of cars added to the shared bitmaps after this index was derived.
+     */
+    private long[] withinFleet(long[] bits) {
+        if ((carCount & 63) != 0) {
+            bits[carWords - 1] &= (1L << carCount) - 1;
+        }
+        return bits;
+    }
+
+    private static void copyWidened(ConcurrentHashMap<Long, AtomicLongArray> source,
+                                    ConcurrentHashMap<Long, AtomicLongArray> target, int rows, int targetWords) {
+        source.forEach((day, bits) -> {
+            int sourceWords = bits.length() / rows;
+            AtomicLongArray widened = new AtomicLongArray(rows * targetWords);
+            for (int row = 0; row < rows; row++) {
+                for (int i = 0; i < sourceWords; i++) {
+                    widened.set(row * targetWords + i, bits.get(row * sourceWords + i));
+                }
+            }
+            target.put(day, widened);
+        });
+    }
+
+    private static long epochHour(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static LocalDateTime hourStart(long epochHour) {
+        return LocalDateTime.ofEpochSecond(epochHour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static long firstDay(Reservation reservation) {
+        return reservation.getStart().toLocalDate().toEpochDay();
+    }
+
+    private static long lastDay(Reservation reservation) {
+        return reservation.getEnd().toLocalDate().toEpochDay();
+    }
+
+    private static long firstFullHour(LocalDateTime start) {
+        return epochHour(start.minusNanos(1)) + 1;
+    }
+
+    private static long lastFullHour(LocalDateTime end) {
+        return epochHour(end.plusNanos(1)) - 1;
+    }
+
+    private static long firstFullDay(LocalDateTime start) {
+        LocalDate date = start.toLocalDate();
+        return start.toLocalTime().equals(LocalTime.MIDNIGHT) ? date.toEpochDay() : date.toEpochDay() + 1;
+    }
+
+    private static long lastFullDay(LocalDateTime end) {
+        LocalDate date = end.toLocalDate();
+        return end.toLocalTime().equals(LocalTime.MAX) ? date.toEpochDay() : date.toEpochDay() - 1;
+    }
+
+    /**
+     * Counts started and finished updates, shared by an index and the ones derived from it.
+     * <p>
+     * Each update is counted as started before it finishes, and the finished count is read before the started
+     * one, so equal sums mean no update was running in between. Each sum only ever grows, so a started sum that
+     * still equals a finished sum read earlier means no update started meanwhile either. A query holding updates
+     * off raises the flag before waiting for equal sums, and an update checks the flag after counting itself as
+     * started, so either the query waits for the update or the update steps back and waits for the query.
+     */
+    private static final class UpdateGate {
+        private final LongAdder started = new LongAdder();
+        private final LongAdder finished = new LongAdder();
+        private final ReentrantLock holdOff = new ReentrantLock();
+        private volatile boolean heldOff;
+
+        void enter() {
+            started.increment();
+            while (heldOff) {
+                finished.increment();
+                holdOff.lock();
+                holdOff.unlock();
+                started.increment();
+            }
+        }
+
+        private boolean isQuiet() {
+            long done = finished.sum();
+            return started.sum() == done;
+        }
+
+        <T> T holdingOff(Supplier<T> reader) {
+            holdOff.lock();
+            try {
+                heldOff = true;
+                while (!isQuiet()) {
+                    Thread.onSpinWait();
+                }
+                return reader.get();
+            } finally {
+                heldOff = false;
+                holdOff.unlock();
+            }
+        }
+    }
+}
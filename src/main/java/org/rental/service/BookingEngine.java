@@ -0,0 +1,32 @@
+package org.rental.service;
+
+import org.rental.dto.Car;
+import org.rental.util.CarType;
+
+import java.io.Closeable;
+import java.util.function.Supplier;
+
+/**
+ * Decides where and under which guard changes to the reservations of cars run.
+ * Every change to a car runs inside {@link #submit} for its type and accesses the car through {@link #withCar}.
+ */
+interface BookingEngine extends Closeable {
+
+    /**
+     * Runs the command for cars of the given type and returns its result.
+     */
+    <T> T submit(CarType type, Supplier<T> command);
+
+    /**
+     * Runs the access with exclusive use of the car. Must be called from within {@link #submit} for the car's type.
+     */
+    <T> T withCar(CarType type, Car car, Supplier<T> access);
+
+    /**
+     * Runs the command while no other change to any car can run.
+     */
+    <T> T withAllCars(Supplier<T> command);
+
+    @Override
+    void close();
+}
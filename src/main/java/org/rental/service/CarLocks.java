@@ -0,0 +1,43 @@
+package org.rental.service;
+
+import org.rental.dto.Car;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of lock stripes guarding the reservations of individual cars.
+ * Cars that hash to different stripes can be booked in parallel.
+ */
+class CarLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    CarLocks(int minStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock lockFor(Car car) {
+        int hash = System.identityHashCode(car);
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Acquires every stripe in a fixed order, blocking all bookings until {@link #unlockAll()}.
+     */
+    void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+}
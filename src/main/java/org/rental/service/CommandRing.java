@@ -0,0 +1,59 @@
+package org.rental.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of commands.
+ * <p>
+ * Producers claim a sequence number with one atomic increment, write the command into the slot of that sequence
+ * and publish it by storing the sequence in the slot's marker. The consumer takes slots strictly in sequence order
+ * and frees them by advancing its own sequence, so neither side ever takes a lock.
+ * A producer that finds the ring full spins until the consumer frees the slot it claimed.
+ */
+class CommandRing {
+    private final Runnable[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    CommandRing(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, minCapacity - 1)) << 1;
+        this.slots = new Runnable[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    void publish(Runnable command) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= slots.length) {
+            Thread.yield();
+        }
+        int slot = (int) sequence & mask;
+        slots[slot] = command;
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Takes the next command, or returns null if it has not been published yet. Only called by the consumer.
+     */
+    Runnable poll() {
+        long sequence = consumed;
+        int slot = (int) sequence & mask;
+        if (published.get(slot) != sequence) {
+            return null;
+        }
+        Runnable command = slots[slot];
+        slots[slot] = null;
+        consumed = sequence + 1;
+        return command;
+    }
+
+    boolean isEmpty() {
+        return published.get((int) consumed & mask) != consumed;
+    }
+}
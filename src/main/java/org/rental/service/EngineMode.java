@@ -0,0 +1,16 @@
+package org.rental.service;
+
+/**
+ * How a {@link RentService} serializes changes to the reservations of its cars.
+ */
+public enum EngineMode {
+    /**
+     * Callers change cars themselves, each car guarded by a striped lock.
+     */
+    LOCKING,
+    /**
+     * Each car type is owned by one writer thread that applies all changes to its cars in order;
+     * callers hand their commands over through a lock-free ring buffer and wait for the result.
+     */
+    SHARDED
+}
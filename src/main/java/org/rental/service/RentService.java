@@ -1,44 +1,1135 @@
 package org.rental.service;
 
-import lombok.Getter;
+import org.rental.analytics.CarReservations;
+import org.rental.analytics.FleetAnalytics;
+import org.rental.analytics.UtilizationReport;
+import org.rental.dto.BookingRequest;
+import org.rental.events.EventRing;
+import org.rental.events.EventSubscription;
 import org.rental.dto.Car;
+import org.rental.dto.FreeWindow;
 import org.rental.dto.Reservation;
 import org.rental.dto.Result;
+import org.rental.dto.SearchOption;
+import org.rental.dto.SearchRequest;
+import org.rental.metrics.BookingMetrics;
+import org.rental.metrics.RejectReason;
+import org.rental.persistence.FleetSnapshot;
+import org.rental.persistence.JournalRecord;
+import org.rental.persistence.ReservationJournal;
+import org.rental.pricing.QuoteEngine;
 import org.rental.util.CarFactory;
 import org.rental.util.CarType;
+import org.rental.util.EpochMinutes;
+import org.rental.util.StorageType;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
-@Getter
-public class RentService {
-    private final Map<CarType, List<Car>> fleet;
+public class RentService implements Closeable {
+    /**
+     * Cars of each type by position, retired ones included, with their availability index.
+     * Replaced as a whole when cars are added, so a request always works on one consistent view.
+     */
+    private final Map<CarType, FleetView> fleet = new ConcurrentHashMap<>();
+    private final BookingEngine engine;
+    private final ReentrantLock fleetChanges = new ReentrantLock();
+
+    private final ConcurrentHashMap<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final AtomicLong lastReservationId = new AtomicLong();
+    private final Waitlist waitlist = new Waitlist();
+    /**
+     * Expired reservations the archive failed to take, handed to it again on the next expiry.
+     */
+    private final Queue<Unarchived> unarchived = new ConcurrentLinkedQueue<>();
+    private final StorageType storage;
+    private final AssignmentStrategy assignment;
+    private final ReservationJournal journal;
+    private final Path snapshotFile;
+    private final BookingMetrics metrics;
+    private final QuoteEngine quotes;
+    private final EventRing events;
+    /**
+     * Clock of each car type, in the zone its reservations are local to.
+     */
+    private final Map<CarType, Clock> clocks = new EnumMap<>(CarType.class);
 
     public RentService(Map<CarType, Integer> carLimits) {
-        fleet = new HashMap<>();
+        this(carLimits, RentServiceConfig.defaults());
+    }
+
+    public RentService(Map<CarType, Integer> carLimits, StorageType storage) {
+        this(carLimits, RentServiceConfig.builder().storage(storage).build());
+    }
+
+    public RentService(Map<CarType, Integer> carLimits, RentServiceConfig config) {
+        storage = config.getStorage();
+        assignment = config.getAssignment();
+        journal = config.getJournal();
+        snapshotFile = config.getSnapshot();
+        metrics = config.getMetrics();
+        quotes = config.getQuotes();
+        events = config.getEventCapacity() > 0 ? new EventRing(config.getEventCapacity()) : null;
+        for (CarType type : CarType.values()) {
+            clocks.put(type, config.getClock().withZone(config.getZones().getOrDefault(type, config.getClock().getZone())));
+        }
+        engine = config.getEngine() == EngineMode.SHARDED
+                ? new ShardedEngine(EnumSet.allOf(CarType.class), metrics)
+                : new LockingEngine(metrics);
 
         for (Map.Entry<CarType, Integer> carLimit : carLimits.entrySet()) {
-            List<Car> cars = new ArrayList<>();
-            if (carLimit.getValue() > 0) {
-                for (int i = 0; i < carLimit.getValue(); i++) {
-                    cars.add(CarFactory.create(carLimit.getKey()));
-                }
+            extendFleet(carLimit.getKey(), Math.max(0, carLimit.getValue()));
+        }
+
+        try {
+            long journalSequence = 0;
+            if (snapshotFile != null && Files.exists(snapshotFile)) {
+                FleetSnapshot.Position position = FleetSnapshot.read(snapshotFile, this::apply);
+                journalSequence = position.journalSequence();
+                // ids of reservations cancelled or expired before the snapshot are not in it, but stay taken
+                lastReservationId.accumulateAndGet(position.lastReservationId(), Math::max);
+            }
+            if (journal != null) {
+                journal.replay(journalSequence, this::apply);
             }
-            fleet.put(carLimit.getKey(), cars);
+        } catch (IOException e) {
+            engine.close();
+            throw new UncheckedIOException("Cannot restore fleet state", e);
         }
     }
 
     public Result rentCar(CarType type, LocalDateTime start, int days) {
-        if (start != null && start.isAfter(LocalDateTime.now())) {
-            if (fleet.containsKey(type)) {
-                Reservation reservation = new Reservation(start, days);
-                for (Car car : fleet.get(type)) {
-                    if (car.makeReservation(reservation)) {
-                        return new Result(true);
+        long begin = metrics.isEnabled() ? System.nanoTime() : 0;
+        RejectReason rejection = rejectionOf(type, start);
+        Result result = new Result(false);
+        if (rejection == null) {
+            Reservation reservation = new Reservation(start, days);
+            // priced before booking, so the surge reflects the fleet the customer asked for a car from
+            long price = price(type, start, days);
+            int car = engine.submit(type, () -> assign(type, reservation));
+            if (car >= 0) {
+                Booking booking = new Booking(type, car, reservation);
+                long reservationId = register(booking);
+                record(JournalRecord.Kind.RESERVED, reservationId, booking);
+                result = new Result(true, reservationId, price);
+            } else {
+                rejection = RejectReason.NO_CAPACITY;
+            }
+        }
+        if (metrics.isEnabled()) {
+            recordOutcome(type, rejection);
+            metrics.recordLatency(type, System.nanoTime() - begin);
+        }
+        return result;
+    }
+
+    /**
+     * Books all requests or none of them. While the batch is planned no other change to any car can run,
+     * so concurrent bookings never observe a partially applied batch.
+     *
+     * @return one result per request, in request order
+     */
+    public List<Result> rentCars(List<BookingRequest> requests) {
+        // validated before any car is guarded, so planning cannot fail half way through on a malformed request
+        boolean successful = requests.stream().allMatch(request -> request != null && rejectionOf(request) == null);
+
+        List<Result> results = new ArrayList<>(requests.size());
+        if (successful) {
+            long[] prices = quotes == null ? new long[requests.size()] : quotes.quoteAll(requests, this::occupancy);
+            List<Booking> placements = new ArrayList<>(requests.size());
+            successful = engine.withAllCars(() -> placeAll(requests, placements));
+            if (successful) {
+                for (int i = 0; i < placements.size(); i++) {
+                    long reservationId = register(placements.get(i));
+                    record(JournalRecord.Kind.RESERVED, reservationId, placements.get(i));
+                    results.add(new Result(true, reservationId, prices[i]));
+                }
+            }
+        }
+
+        while (results.size() < requests.size()) {
+            results.add(new Result(false));
+        }
+        if (metrics.isEnabled()) {
+            // a batch that does not fit rejects every request in it for lack of capacity, unless it is invalid itself
+            for (BookingRequest request : requests) {
+                if (request != null) {
+                    RejectReason rejection = rejectionOf(request);
+                    recordOutcome(request.getType(), successful ? null
+                            : rejection != null ? rejection : RejectReason.NO_CAPACITY);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Places every request or, if one of them fits no car or placing fails, releases the placements made so far.
+     * Must be called while no other change to any car can run.
+     */
+    private boolean placeAll(List<BookingRequest> requests, List<Booking> placements) {
+        Map<Slot, BitSet> blockedBySlot = new HashMap<>();
+        try {
+            for (BookingRequest request : requests) {
+                Slot slot = new Slot(request.getType(), request.getStart(), request.getDays());
+                Reservation reservation = new Reservation(request.getStart(), request.getDays());
+                BitSet blocked = blockedBySlot.computeIfAbsent(slot,
+                        key -> fleet.get(key.type()).index().blockedCars(reservation));
+                int car = assign(request.getType(), reservation, blocked);
+                if (car < 0) {
+                    placements.forEach(this::release);
+                    return false;
+                }
+                // identical requests cannot share a car
+                blocked.set(car);
+                placements.add(new Booking(request.getType(), car, reservation));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            placements.forEach(this::release);
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels the reservation booked under the id and makes its car available again for that time.
+     *
+     * @return a successful result carrying the id, or an unsuccessful one if no such reservation is held
+     */
+    public Result cancelReservation(long reservationId) {
+        Booking booking = bookings.get(reservationId);
+        if (booking == null) {
+            return new Result(false);
+        }
+        Car car = carOf(booking);
+        List<PendingChange> changes = new ArrayList<>();
+        List<Promotion> promotions = new ArrayList<>();
+        boolean cancelled = engine.submit(booking.type(), () -> {
+            Booking freed = engine.withCar(booking.type(), car, () -> {
+                // the reservation may have been changed or cancelled before the car was guarded
+                Booking current = bookings.get(reservationId);
+                if (current == null || !car.cancelReservation(current.reservation())) {
+                    return null;
+                }
+                bookings.remove(reservationId);
+                fleet.get(current.type()).index().markFree(current.car(), current.reservation(), car);
+                // enqueued under the car guard, so changes of the same reservation are journaled in order
+                changes.add(enqueue(JournalRecord.Kind.CANCELLED, reservationId, current));
+                return current;
+            });
+            if (freed != null) {
+                promote(freed, car, promotions);
+            }
+            return freed != null;
+        });
+        commit(changes);
+        notifyWaiters(promotions);
+        return cancelled ? new Result(true, reservationId) : new Result(false);
+    }
+
+    /**
+     * Extends or shortens the reservation booked under the id to the given number of days from its start.
+     * The reservation keeps its car and id; if the car is not free for the new duration nothing changes.
+     *
+     * @return a successful result carrying the id, or an unsuccessful one if the reservation cannot be changed
+     */
+    public Result modifyReservation(long reservationId, int days) {
+        Booking booking = bookings.get(reservationId);
+        if (booking == null) {
+            return new Result(false);
+        }
+        Reservation changed = new Reservation(booking.reservation().getStart(), days);
+        Car car = carOf(booking);
+        List<PendingChange> changes = new ArrayList<>();
+        List<Promotion> promotions = new ArrayList<>();
+        boolean modified = engine.submit(booking.type(), () -> {
+            Booking previous = engine.withCar(booking.type(), car, () -> {
+                Booking current = bookings.get(reservationId);
+                if (current == null || !car.cancelReservation(current.reservation())) {
+                    return null;
+                }
+                if (!car.makeReservation(changed)) {
+                    car.makeReservation(current.reservation());
+                    return null;
+                }
+                fleet.get(current.type()).index().markChanged(current.car(), current.reservation(), changed, car);
+                Booking replacement = new Booking(current.type(), current.car(), changed);
+                bookings.put(reservationId, replacement);
+                changes.add(enqueue(JournalRecord.Kind.MODIFIED, reservationId, replacement));
+                return current;
+            });
+            if (previous != null && changed.getEnd().isBefore(previous.reservation().getEnd())) {
+                promote(previous, car, promotions);
+            }
+            return previous != null;
+        });
+        commit(changes);
+        notifyWaiters(promotions);
+        return modified ? new Result(true, reservationId) : new Result(false);
+    }
+
+    /**
+     * Parks a request until a car of its type becomes free for it, typically after {@link #rentCar} found none.
+     * The request is tried once right away, so capacity freed in between is not missed. Later it is tried
+     * whenever a reservation overlapping its time is cancelled or shortened, or cars of its type are added;
+     * requests waiting longest are tried first. The listener gets the booking result on the thread that freed the
+     * car, or an unsuccessful result once the request starts before a car was found for it, at the latest when
+     * reservations are next expired.
+     *
+     * @return ticket to leave the waitlist with
+     * @throws IllegalArgumentException if the request could not be booked even with free cars
+     */
+    public long joinWaitlist(CarType type, LocalDateTime start, int days, Consumer<Result> listener) {
+        RejectReason rejection = rejectionOf(type, start);
+        if (rejection != null) {
+            throw new IllegalArgumentException("Request cannot be booked: " + rejection);
+        }
+        Waitlist.Waiter waiter = waitlist.add(type, start, days, listener);
+        List<Promotion> promotions = new ArrayList<>();
+        engine.submit(type, () -> {
+            // the waiter stays listed while a car is looked for, so a car freed meanwhile is offered to it either way
+            int car = assign(type, waiter.reservation());
+            if (car < 0) {
+                return null;
+            }
+            if (waitlist.claim(waiter)) {
+                promotions.add(book(waiter, car));
+            } else {
+                // promoted onto another car meanwhile
+                Booking unused = new Booking(type, car, waiter.reservation());
+                Car owner = carOf(unused);
+                engine.withCar(type, owner, () -> {
+                    release(unused);
+                    return null;
+                });
+                promote(unused, owner, promotions);
+            }
+            return null;
+        });
+        notifyWaiters(promotions);
+        return waiter.ticket();
+    }
+
+    /**
+     * Removes the request from the waitlist.
+     *
+     * @return false if it was booked or removed before
+     */
+    public boolean leaveWaitlist(long ticket) {
+        return waitlist.remove(ticket);
+    }
+
+    public int getWaitlistSize() {
+        return waitlist.size();
+    }
+
+    /**
+     * Adds new cars of the type to the fleet, also for a type the service was not created with.
+     * Bookings continue meanwhile: the cars are published with a new view of the type's fleet, so requests see
+     * either all of them or none. Only when the availability index of the type runs out of capacity are all
+     * changes to cars paused while it is copied into one of at least twice the size.
+     *
+     * @return the added cars
+     */
+    public List<Car> addCars(CarType type, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one car must be added");
+        }
+        List<Car> added;
+        int firstPosition;
+        fleetChanges.lock();
+        try {
+            FleetView view = fleet.get(type);
+            // taken under the lock, as concurrent additions publish larger fleets as soon as it is released
+            firstPosition = view == null ? 0 : view.cars().size();
+            // journaled before the cars can be booked, so replay never meets a booking for a car it does not know
+            recordFleetChange(JournalRecord.Kind.CAR_ADDED, type, firstPosition + count - 1);
+            added = extendFleet(type, count);
+        } finally {
+            fleetChanges.unlock();
+        }
+        List<Promotion> promotions = new ArrayList<>();
+        engine.submit(type, () -> {
+            for (Waitlist.Waiter waiter : waitlist.all(type)) {
+                for (int position = firstPosition; position < firstPosition + count; position++) {
+                    if (tryPromote(waiter, position, added.get(position - firstPosition), promotions)) {
+                        break;
                     }
                 }
             }
+            return null;
+        });
+        notifyWaiters(promotions);
+        return added;
+    }
+
+    /**
+     * Takes the car out of service. A car that still holds reservations which have not ended stays in service,
+     * and those reservations are returned so they can be cancelled or moved first. The car keeps its position,
+     * so journaled changes of its past reservations still replay.
+     *
+     * @return the reservations preventing the retirement, empty once the car is retired
+     * @throws IllegalArgumentException if the car is not part of the fleet
+     */
+    public List<Reservation> retireCar(Car car) {
+        CarSlot slot = slotOf(car);
+        if (slot == null) {
+            throw new IllegalArgumentException("Car is not part of the fleet");
+        }
+        LocalDateTime now = now(slot.type());
+        List<PendingChange> changes = new ArrayList<>();
+        List<Reservation> conflicts = engine.submit(slot.type(), () -> engine.withCar(slot.type(), car, () -> {
+            AvailabilityIndex index = fleet.get(slot.type()).index();
+            if (index.isRetired(slot.position())) {
+                return List.of();
+            }
+            List<Reservation> unfinished = car.getReservations().stream()
+                    .filter(reservation -> reservation.getEnd().isAfter(now))
+                    .toList();
+            if (unfinished.isEmpty()) {
+                index.markRetired(slot.position());
+                changes.add(enqueueFleetChange(JournalRecord.Kind.CAR_RETIRED, slot.type(), slot.position()));
+            }
+            return unfinished;
+        }));
+        commit(changes);
+        return conflicts;
+    }
+
+    /**
+     * Quotes every request with the configured quote engine and the current occupancy of the fleet,
+     * without booking anything.
+     *
+     * @return one price per request, in request order
+     * @throws IllegalStateException if the service was configured without a quote engine
+     */
+    public long[] quote(List<BookingRequest> requests) {
+        if (quotes == null) {
+            throw new IllegalStateException("No quote engine configured");
         }
-        return new Result(false);
+        return quotes.quoteAll(requests, this::occupancy);
+    }
+
+    /**
+     * Returns the share of the cars in service of the type that have a reservation on the day,
+     * or 0 for a type the fleet does not have.
+     */
+    public double occupancy(CarType type, LocalDate day) {
+        FleetView view = fleet.get(type);
+        return view == null ? 0.0 : view.index().occupancy(day.toEpochDay());
+    }
+
+    /**
+     * Returns the cars in service per type, in fleet order. Retired cars are left out.
+     */
+    public Map<CarType, List<Car>> getFleet() {
+        Map<CarType, List<Car>> active = new EnumMap<>(CarType.class);
+        fleet.forEach((type, view) -> {
+            List<Car> cars = new ArrayList<>(view.cars().size());
+            for (int position = 0; position < view.cars().size(); position++) {
+                if (!view.index().isRetired(position)) {
+                    cars.add(view.cars().get(position));
+                }
+            }
+            active.put(type, cars);
+        });
+        return active;
+    }
+
+    /**
+     * Writes all reservations to the configured snapshot file and drops the journal records it covers.
+     * The fleet is read together with the journal position while fleet changes are held off; reservations are
+     * read from the id index without locking, so bookings continue while the snapshot is taken.
+     * Changes made during the copy may end up both in the snapshot and in the kept journal tail;
+     * replaying them again leaves each reservation id with its latest reservation.
+     */
+    public void snapshot() throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("No snapshot file configured");
+        }
+        long journalSequence;
+        long lastId;
+        Map<CarType, List<List<JournalRecord>>> reservations = new EnumMap<>(CarType.class);
+        Map<CarType, BitSet> retired = new EnumMap<>(CarType.class);
+        // cars are journaled before they are published, so the sequence and the fleet are read together
+        fleetChanges.lock();
+        try {
+            journalSequence = journal != null ? journal.nextSequence() : 0;
+            // ids are taken before they are journaled, so this covers every id in the journal before the sequence
+            lastId = lastReservationId.get();
+            fleet.forEach((type, view) -> {
+                List<List<JournalRecord>> perCar = new ArrayList<>(view.cars().size());
+                BitSet retiredCars = new BitSet();
+                for (int position = 0; position < view.cars().size(); position++) {
+                    perCar.add(new ArrayList<>());
+                    retiredCars.set(position, view.index().isRetired(position));
+                }
+                reservations.put(type, perCar);
+                retired.put(type, retiredCars);
+            });
+        } finally {
+            fleetChanges.unlock();
+        }
+        bookings.forEach((reservationId, booking) -> {
+            List<List<JournalRecord>> perCar = reservations.get(booking.type());
+            // a booking on a car added after the views were read is covered by the journal tail
+            if (booking.car() < perCar.size()) {
+                perCar.get(booking.car()).add(toRecord(JournalRecord.Kind.RESERVED, reservationId, booking));
+            }
+        });
+        FleetSnapshot.write(snapshotFile, journalSequence, lastId, reservations, retired);
+        if (journal != null) {
+            journal.compact(journalSequence);
+        }
+    }
+
+    /**
+     * Removes all reservations that ended before the cutoff from the live fleet and hands them to the archive.
+     * Each car is guarded only while its own reservations are removed, so bookings of other cars are not held up.
+     * The removals are journaled, so a restart does not bring the reservations back.
+     * Waiters whose requested start has passed by now are taken off the waitlist and get an unsuccessful result.
+     * <p>
+     * Reservations are archived only once they are out of the fleet for good. Those the archive fails to take
+     * are kept and handed to it again on the next expiry, and the first failure is rethrown once every type has
+     * been expired.
+     *
+     * @return the number of removed reservations
+     */
+    public int expireReservations(LocalDateTime cutoff, ReservationArchive archive) {
+        Map<CarType, LocalDateTime> cutoffs = new EnumMap<>(CarType.class);
+        for (CarType type : fleet.keySet()) {
+            cutoffs.put(type, cutoff);
+        }
+        return expire(cutoffs, archive);
+    }
+
+    /**
+     * Removes all reservations that have ended by now, each type in the time of its own zone, and hands them
+     * to the archive. Waiters whose requested start has passed are taken off the waitlist and get an unsuccessful
+     * result. Archive failures are handled as by {@link #expireReservations(LocalDateTime, ReservationArchive)}.
+     *
+     * @return the number of removed reservations
+     */
+    public int expireReservations(ReservationArchive archive) {
+        Map<CarType, LocalDateTime> cutoffs = new EnumMap<>(CarType.class);
+        for (CarType type : fleet.keySet()) {
+            cutoffs.put(type, now(type));
+        }
+        return expire(cutoffs, archive);
+    }
+
+    private int expire(Map<CarType, LocalDateTime> cutoffs, ReservationArchive archive) {
+        int expired = 0;
+        List<Unarchived> finishedOfAllTypes = new ArrayList<>();
+        for (Unarchived retried = unarchived.poll(); retried != null; retried = unarchived.poll()) {
+            finishedOfAllTypes.add(retried);
+        }
+        for (Map.Entry<CarType, LocalDateTime> typeCutoff : cutoffs.entrySet()) {
+            CarType type = typeCutoff.getKey();
+            LocalDateTime cutoff = typeCutoff.getValue();
+            List<Car> cars = fleet.get(type).cars();
+            List<Reservation> finished = engine.submit(type, () -> {
+                List<Reservation> removed = new ArrayList<>();
+                for (int position = 0; position < cars.size(); position++) {
+                    int car = position;
+                    engine.withCar(type, cars.get(car), () -> {
+                        // the index drops the busy days the finished reservations leave behind on the cutoff day
+                        int first = removed.size();
+                        int count = cars.get(car).removeEndedBefore(cutoff, removed::add);
+                        for (Reservation reservation : removed.subList(first, removed.size())) {
+                            fleet.get(type).index().markFree(car, reservation, cars.get(car));
+                        }
+                        return count;
+                    });
+                }
+                return removed;
+            });
+            expired += finished.size();
+            // a later cutoff may still fall into live reservations; days before today can no longer be booked
+            LocalDateTime today = now(type);
+            fleet.get(type).index().evictBefore(cutoff.isBefore(today) ? cutoff : today);
+            // journaled once the cars no longer hold them, so replay does not bring them back; the car decides
+            // with the end as its store keeps it, which may be rounded
+            List<PendingChange> changes = new ArrayList<>();
+            bookings.forEach((reservationId, booking) -> {
+                if (booking.type() == type && cars.get(booking.car()).endsBefore(booking.reservation(), cutoff)
+                        && bookings.remove(reservationId, booking)) {
+                    changes.add(enqueue(JournalRecord.Kind.EXPIRED, reservationId, booking));
+                }
+            });
+            commit(changes);
+            finished.forEach(reservation -> finishedOfAllTypes.add(new Unarchived(type, reservation)));
+            List<Promotion> unserved = new ArrayList<>();
+            for (Waitlist.Waiter waiter : waitlist.removeStarted(type, now(type))) {
+                unserved.add(new Promotion(waiter, new Result(false), null));
+            }
+            notifyWaiters(unserved);
+        }
+        RuntimeException failure = null;
+        for (Unarchived reservation : finishedOfAllTypes) {
+            try {
+                archive.archive(reservation.type(), reservation.reservation());
+            } catch (RuntimeException e) {
+                unarchived.add(reservation);
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return expired;
+    }
+
+    /**
+     * Reports utilization, peak occupancy and idle gaps per type for the days from the first to the last, both
+     * included. The reservations in the range are copied car by car, each under its own guard, so the report
+     * reflects every booking, change and cancellation either completely or not at all, while a booking waits at
+     * most for the copy of one car. The copies are aggregated and analysed in parallel.
+     */
+    public Map<CarType, UtilizationReport> report(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Report cannot end before it starts");
+        }
+        Reservation range = new Reservation(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        long fromMinute = EpochMinutes.floor(range.getStart());
+        long toMinute = EpochMinutes.floor(range.getEnd());
+        Map<CarType, UtilizationReport> reports = new EnumMap<>(CarType.class);
+        fleet.forEach((type, view) -> {
+            FleetCopy copy = engine.submit(type, () -> copyOf(type, view, range));
+            List<List<Reservation>> cars = copy.reservations();
+            CarReservations reservations = new CarReservations(cars.size(), copy.activeCars());
+            // every car is counted and added by one thread, as the columns require
+            IntStream.range(0, cars.size()).parallel().forEach(car -> {
+                for (Reservation reservation : cars.get(car)) {
+                    if (overlaps(reservation, fromMinute, toMinute)) {
+                        reservations.count(car);
+                    }
+                }
+            });
+            reservations.allocate();
+            IntStream.range(0, cars.size()).parallel().forEach(car -> {
+                for (Reservation reservation : cars.get(car)) {
+                    if (overlaps(reservation, fromMinute, toMinute)) {
+                        reservations.add(car, EpochMinutes.floor(reservation.getStart()),
+                                EpochMinutes.ceil(reservation.getEnd()));
+                    }
+                }
+            });
+            reports.put(type, FleetAnalytics.report(reservations, from, to));
+        });
+        return reports;
+    }
+
+    /**
+     * Subscribes to the changes made from now on: bookings, changes, cancellations and expiries of reservations,
+     * and cars added or retired. Changes of one reservation or car arrive in the order they were made.
+     *
+     * @throws IllegalStateException if the service publishes no events
+     */
+    public EventSubscription subscribe() {
+        return eventRing().subscribe();
+    }
+
+    /**
+     * Subscribes from the given sequence, replaying the events from there that are still kept.
+     *
+     * @throws IllegalStateException if the service publishes no events
+     */
+    public EventSubscription subscribe(long fromSequence) {
+        return eventRing().subscribe(fromSequence);
+    }
+
+    /**
+     * Counts the cars of the type that have no reservation in any hour touched by the range.
+     * Answered from the availability index without taking car locks. Only a query overtaken by bookings many
+     * times in a row holds new index updates off, for one read.
+     * A car whose reservation ends or starts within the first or last hour of the range is not counted.
+     */
+    public int countFreeCars(CarType type, LocalDateTime from, LocalDateTime to) {
+        FleetView view = fleet.get(type);
+        if (view == null || from == null || to == null || to.isBefore(from)) {
+            return 0;
+        }
+        return view.index().countFree(from, to);
+    }
+
+    /**
+     * Lists the whole hours within the range in which the car is not reserved, merged into windows.
+     *
+     * @return the free windows in chronological order, or an empty list for a car outside the fleet or retired
+     */
+    public List<FreeWindow> findFreeWindows(Car car, LocalDateTime from, LocalDateTime to) {
+        CarSlot slot = slotOf(car);
+        if (slot == null || from == null || to == null || to.isBefore(from)) {
+            return List.of();
+        }
+        AvailabilityIndex index = fleet.get(slot.type()).index();
+        return index.isRetired(slot.position()) ? List.of() : index.freeWindows(slot.position(), from, to);
+    }
+
+    /**
+     * Finds the best cars free for the request or for one moved within its tolerance, without booking any.
+     * Options are ranked by how far the start moved, then by type (the preferred one before the alternatives in
+     * their order), an earlier start before a later one, and fleet order. Cars reserved for a whole day of a
+     * candidate range are skipped through the availability index; only the others are checked against their own
+     * reservations.
+     *
+     * @return up to {@link SearchRequest#getLimit()} options, best first; empty if nothing fits
+     */
+    public List<SearchOption> search(SearchRequest request) {
+        if (request == null || request.getStart() == null || request.getLimit() < 1) {
+            return List.of();
+        }
+        Set<CarType> types = new LinkedHashSet<>();
+        types.add(request.getType());
+        types.addAll(request.getAlternatives());
+        int[] shifts = shiftsOf(request.getToleranceDays());
+
+        List<RankedOption> options = new ArrayList<>();
+        int typeRank = 0;
+        for (CarType type : types) {
+            if (type != null && fleet.containsKey(type)) {
+                for (SearchOption option : engine.submit(type, () -> freeCars(type, request, shifts, now(type)))) {
+                    options.add(new RankedOption(option, typeRank));
+                }
+            }
+            typeRank++;
+        }
+        return options.stream()
+                .sorted(Comparator.comparingInt((RankedOption ranked) -> Math.abs(ranked.option().getShiftDays()))
+                        .thenComparingInt(RankedOption::typeRank)
+                        .thenComparingInt(ranked -> ranked.option().getShiftDays()))
+                .limit(request.getLimit())
+                .map(RankedOption::option)
+                .toList();
+    }
+
+    /**
+     * Stops the writer threads of the sharded engine. Further changes to the fleet fail afterwards.
+     */
+    @Override
+    public void close() {
+        engine.close();
+    }
+
+    /**
+     * Returns why the request cannot be booked regardless of the cars' reservations, or {@code null} if it can be tried.
+     */
+    private RejectReason rejectionOf(BookingRequest request) {
+        RejectReason rejection = rejectionOf(request.getType(), request.getStart());
+        return rejection == null && request.getDays() < 0 ? RejectReason.INVALID_DURATION : rejection;
+    }
+
+    private RejectReason rejectionOf(CarType type, LocalDateTime start) {
+        if (type == null || !fleet.containsKey(type)) {
+            return RejectReason.UNKNOWN_TYPE;
+        }
+        return start != null && start.isAfter(now(type)) ? null : RejectReason.PAST_START;
+    }
+
+    /**
+     * Returns the current time in the zone the reservations of the type are local to.
+     */
+    private LocalDateTime now(CarType type) {
+        return LocalDateTime.now(clocks.get(type));
+    }
+
+    private long price(CarType type, LocalDateTime start, int days) {
+        return quotes == null ? Result.NO_PRICE : quotes.quote(type, start, days, occupancy(type, start.toLocalDate()));
+    }
+
+    private void recordOutcome(CarType type, RejectReason rejection) {
+        if (rejection == null) {
+            metrics.recordAccepted(type);
+        } else {
+            metrics.recordRejected(type, rejection);
+        }
+    }
+
+    /**
+     * Places the reservation on the first car of the type that accepts it, in the order of the assignment strategy.
+     *
+     * @return position of the car in the fleet list, or -1 if no car accepted the reservation
+     */
+    private int assign(CarType type, Reservation reservation) {
+        return assign(type, reservation, fleet.get(type).index().blockedCars(reservation));
+    }
+
+    private int assign(CarType type, Reservation reservation, BitSet blocked) {
+        FleetView view = fleet.get(type);
+        if (view.index().isFullyBooked(blocked)) {
+            metrics.recordProbes(type, 0);
+            return -1;
+        }
+        PrimitiveIterator.OfInt candidates = assignment.candidates(view.index(), reservation, blocked);
+        int probes = 0;
+        while (candidates.hasNext()) {
+            int car = candidates.nextInt();
+            probes++;
+            if (tryReserve(type, car, view.cars().get(car), reservation)) {
+                metrics.recordProbes(type, probes);
+                return car;
+            }
+        }
+        metrics.recordProbes(type, probes);
+        return -1;
+    }
+
+    /**
+     * Adds cars to the type's fleet without journaling, publishing a new view once they are all created.
+     * Must be called holding the fleet change lock or before the service is shared.
+     */
+    private List<Car> extendFleet(CarType type, int count) {
+        FleetView view = fleet.get(type);
+        List<Car> cars = new ArrayList<>((view == null ? 0 : view.cars().size()) + count);
+        if (view != null) {
+            cars.addAll(view.cars());
+        }
+        List<Car> added = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Car car = CarFactory.create(type, cars.size(), storage);
+            cars.add(car);
+            added.add(car);
+        }
+        List<Car> published = Collections.unmodifiableList(cars);
+        if (view == null) {
+            fleet.put(type, new FleetView(published, new AvailabilityIndex(published.size())));
+        } else if (published.size() <= view.index().getCapacity()) {
+            fleet.put(type, new FleetView(published, view.index().withCarCount(published.size())));
+        } else {
+            engine.withAllCars(() -> fleet.put(type, new FleetView(published, view.index().grow(published.size()))));
+        }
+        return added;
+    }
+
+    private long register(Booking booking) {
+        long reservationId = lastReservationId.incrementAndGet();
+        bookings.put(reservationId, booking);
+        return reservationId;
+    }
+
+    /**
+     * Tries the waiters overlapping the freed reservation on its car. Must be called from within
+     * {@link BookingEngine#submit} for the type.
+     */
+    private void promote(Booking freed, Car car, List<Promotion> promotions) {
+        for (Waitlist.Waiter waiter : waitlist.overlapping(freed.type(), freed.reservation())) {
+            tryPromote(waiter, freed.car(), car, promotions);
+        }
+    }
+
+    /**
+     * Books the car for the waiter if it is still waiting and the car is free for it.
+     *
+     * @return true if the waiter was taken off the waitlist
+     */
+    private boolean tryPromote(Waitlist.Waiter waiter, int position, Car car, List<Promotion> promotions) {
+        if (!engine.withCar(waiter.type(), car, () -> car.isFree(waiter.reservation())) || !waitlist.claim(waiter)) {
+            return false;
+        }
+        if (!waiter.reservation().getStart().isAfter(now(waiter.type()))) {
+            promotions.add(new Promotion(waiter, new Result(false), null));
+            return true;
+        }
+        if (!tryReserve(waiter.type(), position, car, waiter.reservation())) {
+            waitlist.restore(waiter);
+            return false;
+        }
+        promotions.add(book(waiter, position));
+        return true;
+    }
+
+    private Promotion book(Waitlist.Waiter waiter, int position) {
+        Booking booking = new Booking(waiter.type(), position, waiter.reservation());
+        long reservationId = register(booking);
+        PendingChange booked = enqueue(JournalRecord.Kind.RESERVED, reservationId, booking);
+        long price = price(waiter.type(), waiter.reservation().getStart(), waiter.days());
+        return new Promotion(waiter, new Result(true, reservationId, price), booked);
+    }
+
+    /**
+     * Commits the bookings of the promotions and hands the results to the waiters' listeners once no car is
+     * guarded any more.
+     */
+    private void notifyWaiters(List<Promotion> promotions) {
+        for (int i = 0; i < promotions.size(); i++) {
+            try {
+                commit(promotions.get(i).booked());
+            } catch (Throwable e) {
+                promotions.subList(i + 1, promotions.size()).forEach(promotion -> abandon(promotion.booked()));
+                throw e;
+            }
+            promotions.get(i).waiter().listener().accept(promotions.get(i).result());
+        }
+    }
+
+    private void recordFleetChange(JournalRecord.Kind kind, CarType type, int car) {
+        commit(enqueueFleetChange(kind, type, car));
+    }
+
+    private void record(JournalRecord.Kind kind, long reservationId, Booking booking) {
+        commit(enqueue(kind, reservationId, booking));
+    }
+
+    private PendingChange enqueueFleetChange(JournalRecord.Kind kind, CarType type, int car) {
+        if (journal == null && events == null) {
+            return null;
+        }
+        LocalDateTime now = now(type);
+        return enqueue(new JournalRecord(kind, type, car, 0, now, now));
+    }
+
+    private PendingChange enqueue(JournalRecord.Kind kind, long reservationId, Booking booking) {
+        return journal == null && events == null ? null : enqueue(toRecord(kind, reservationId, booking));
+    }
+
+    /**
+     * Fixes the place of the change in the journal and among the events without waiting for the disk, so it can
+     * be called under a car guard to keep the changes of a car in order. Must be followed by {@link #commit} once
+     * no car is guarded any more.
+     */
+    private PendingChange enqueue(JournalRecord change) {
+        long journalSequence = journal == null ? -1 : journal.enqueue(change);
+        long eventSequence = events == null ? -1 : events.claim();
+        return new PendingChange(change, journalSequence, eventSequence);
+    }
+
+    /**
+     * Waits for the change to be journaled before publishing it, so with a journal forced on every commit no
+     * subscriber sees a change that a restart would lose. If the journal fails, the event sequence is abandoned
+     * instead, so subscribers do not wait for it forever.
+     */
+    private void commit(PendingChange pending) {
+        if (pending == null) {
+            return;
+        }
+        if (journal != null) {
+            try {
+                journal.awaitDurable(pending.journalSequence());
+            } catch (Throwable e) {
+                abandon(pending);
+                throw e;
+            }
+        }
+        if (events != null) {
+            events.publish(pending.eventSequence(), pending.change());
+        }
+    }
+
+    /**
+     * Commits the changes in order. Once one fails, the ones after it are abandoned rather than published.
+     */
+    private void commit(List<PendingChange> changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            try {
+                commit(changes.get(i));
+            } catch (Throwable e) {
+                changes.subList(i + 1, changes.size()).forEach(this::abandon);
+                throw e;
+            }
+        }
+    }
+
+    private void abandon(PendingChange pending) {
+        if (pending != null && events != null) {
+            events.abandon(pending.eventSequence());
+        }
+    }
+
+    private static JournalRecord toRecord(JournalRecord.Kind kind, long reservationId, Booking booking) {
+        return new JournalRecord(kind, booking.type(), booking.car(), reservationId,
+                booking.reservation().getStart(), booking.reservation().getEnd());
+    }
+
+    /**
+     * Re-applies a journaled change. Whatever reservation the id held before is replaced, so applying
+     * a change twice has no further effect. Records for cars the fleet does not have are skipped.
+     */
+    private void apply(JournalRecord record) {
+        FleetView view = fleet.get(record.getType());
+        int size = view == null ? 0 : view.cars().size();
+        if (record.getKind() == JournalRecord.Kind.CAR_ADDED) {
+            if (record.getCar() >= size) {
+                extendFleet(record.getType(), record.getCar() + 1 - size);
+            }
+            return;
+        }
+        if (record.getCar() >= size) {
+            return;
+        }
+        if (record.getKind() == JournalRecord.Kind.CAR_RETIRED) {
+            view.index().markRetired(record.getCar());
+            return;
+        }
+        lastReservationId.accumulateAndGet(record.getReservation(), Math::max);
+        Booking previous = bookings.remove(record.getReservation());
+        if (previous != null) {
+            release(previous);
+        }
+        if (record.getKind() == JournalRecord.Kind.RESERVED || record.getKind() == JournalRecord.Kind.MODIFIED) {
+            Reservation reservation = new Reservation(record.getStart(), record.getEnd());
+            if (view.cars().get(record.getCar()).makeReservation(reservation)) {
+                view.index().markReserved(record.getCar(), reservation);
+                bookings.put(record.getReservation(), new Booking(record.getType(), record.getCar(), reservation));
+            }
+        }
+    }
+
+    private void release(Booking booking) {
+        Car car = carOf(booking);
+        car.cancelReservation(booking.reservation());
+        fleet.get(booking.type()).index().markFree(booking.car(), booking.reservation(), car);
+    }
+
+    /**
+     * Reserves the car unless it was retired. The index is looked up under the car's guard, as the one the car
+     * was ranked with may have been replaced by a larger copy meanwhile.
+     */
+    private boolean tryReserve(CarType type, int position, Car car, Reservation reservation) {
+        return engine.withCar(type, car, () -> {
+            AvailabilityIndex index = fleet.get(type).index();
+            if (index.isRetired(position) || !car.makeReservation(reservation)) {
+                return false;
+            }
+            index.markReserved(position, reservation);
+            return true;
+        });
+    }
+
+    /**
+     * Collects up to the request's limit of free cars of the type, trying the shifted starts in the given order.
+     * Must be called from within {@link BookingEngine#submit} for the type.
+     */
+    private List<SearchOption> freeCars(CarType type, SearchRequest request, int[] shifts, LocalDateTime now) {
+        FleetView view = fleet.get(type);
+        List<SearchOption> found = new ArrayList<>();
+        for (int i = 0; i < shifts.length && found.size() < request.getLimit(); i++) {
+            LocalDateTime start = request.getStart().plusDays(shifts[i]);
+            if (!start.isAfter(now)) {
+                continue;
+            }
+            Reservation reservation = new Reservation(start, request.getDays());
+            BitSet blocked = view.index().blockedCars(reservation);
+            for (int car = blocked.nextClearBit(0); car < view.cars().size() && found.size() < request.getLimit();
+                 car = blocked.nextClearBit(car + 1)) {
+                Car candidate = view.cars().get(car);
+                if (engine.withCar(type, candidate, () -> candidate.isFree(reservation))) {
+                    found.add(new SearchOption(type, candidate, start, shifts[i]));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the day shifts within the tolerance, nearest first and earlier before later: 0, -1, 1, -2, 2, ...
+     */
+    private static int[] shiftsOf(int toleranceDays) {
+        int tolerance = Math.max(0, toleranceDays);
+        int[] shifts = new int[2 * tolerance + 1];
+        for (int distance = 1; distance <= tolerance; distance++) {
+            shifts[2 * distance - 1] = -distance;
+            shifts[2 * distance] = distance;
+        }
+        return shifts;
+    }
+
+    private EventRing eventRing() {
+        if (events == null) {
+            throw new IllegalStateException("No event stream configured");
+        }
+        return events;
+    }
+
+    /**
+     * Copies the reservations of the type's cars touching the range, each car under its own guard.
+     * Must be called from within {@link BookingEngine#submit} for the type.
+     */
+    private FleetCopy copyOf(CarType type, FleetView view, Reservation range) {
+        List<List<Reservation>> reservations = new ArrayList<>(view.cars().size());
+        int active = 0;
+        for (int position = 0; position < view.cars().size(); position++) {
+            Car car = view.cars().get(position);
+            reservations.add(engine.withCar(type, car, () -> car.getReservations(range)));
+            active += view.index().isRetired(position) ? 0 : 1;
+        }
+        return new FleetCopy(active, reservations);
+    }
+
+    private static boolean overlaps(Reservation reservation, long fromMinute, long toMinute) {
+        return EpochMinutes.floor(reservation.getStart()) < toMinute
+                && EpochMinutes.ceil(reservation.getEnd()) > fromMinute;
+    }
+
+    /**
+     * Finds the car in the fleet through its id, which is its position among the cars of its type.
+     *
+     * @return the type and position of the car, or {@code null} for a car outside the fleet
+     */
+    private CarSlot slotOf(Car car) {
+        int position = car.getId();
+        if (position == Car.NO_ID) {
+            return null;
+        }
+        for (Map.Entry<CarType, FleetView> view : fleet.entrySet()) {
+            List<Car> cars = view.getValue().cars();
+            if (position < cars.size() && cars.get(position) == car) {
+                return new CarSlot(view.getKey(), position);
+            }
+        }
+        return null;
+    }
+
+    private Car carOf(Booking booking) {
+        return fleet.get(booking.type()).cars().get(booking.car());
+    }
+
+    /**
+     * A reservation together with the car it was placed on, identified by type and position in the fleet.
+     */
+    private record Booking(CarType type, int car, Reservation reservation) {
+    }
+
+    private record CarSlot(CarType type, int position) {
+    }
+
+    private record FleetView(List<Car> cars, AvailabilityIndex index) {
+    }
+
+    private record FleetCopy(int activeCars, List<List<Reservation>> reservations) {
+    }
+
+    private record Unarchived(CarType type, Reservation reservation) {
+    }
+
+    private record PendingChange(JournalRecord change, long journalSequence, long eventSequence) {
+    }
+
+    /**
+     * @param booked the journaled booking of a successful promotion, {@code null} otherwise
+     */
+    private record Promotion(Waitlist.Waiter waiter, Result result, PendingChange booked) {
+    }
+
+    /**
+     * A search option with the position of its type among the searched ones, the preferred type being 0.
+     */
+    private record RankedOption(SearchOption option, int typeRank) {
+    }
+
+    private record Slot(CarType type, LocalDateTime start, int days) {
     }
 }
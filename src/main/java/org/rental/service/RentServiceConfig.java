@@ -0,0 +1,64 @@
+package org.rental.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.rental.metrics.BookingMetrics;
+import org.rental.persistence.ReservationJournal;
+import org.rental.pricing.QuoteEngine;
+import org.rental.util.CarType;
+import org.rental.util.StorageType;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Construction-time settings of a {@link RentService}.
+ */
+@Builder
+@Getter
+public class RentServiceConfig {
+    @Builder.Default
+    private final StorageType storage = StorageType.INTERVAL_TREE;
+    @Builder.Default
+    private final AssignmentStrategy assignment = AssignmentStrategy.FIRST_FIT;
+    @Builder.Default
+    private final EngineMode engine = EngineMode.LOCKING;
+    /**
+     * Source of the current time, against which starts in the past are rejected.
+     */
+    @Builder.Default
+    private final Clock clock = Clock.systemDefaultZone();
+    /**
+     * Zone the cars of a type are handed over in; the times of their reservations are local to it.
+     * Types without a zone use the zone of the clock.
+     */
+    @Builder.Default
+    private final Map<CarType, ZoneId> zones = Map.of();
+    /**
+     * Receives measurements of every booking; {@link BookingMetrics#DISABLED} keeps the booking path free of them.
+     */
+    @Builder.Default
+    private final BookingMetrics metrics = BookingMetrics.DISABLED;
+    /**
+     * Prices every successful booking; bookings carry no price if absent.
+     */
+    private final QuoteEngine quotes;
+    /**
+     * Number of latest events kept for subscribers; 0 publishes no events.
+     */
+    private final int eventCapacity;
+    /**
+     * Journal to replay on construction and to record every booking in; bookings are kept in memory only if absent.
+     */
+    private final ReservationJournal journal;
+    /**
+     * File holding the latest fleet snapshot; loaded on construction before the journal tail is replayed.
+     */
+    private final Path snapshot;
+
+    public static RentServiceConfig defaults() {
+        return builder().build();
+    }
+}
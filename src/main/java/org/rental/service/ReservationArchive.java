@@ -0,0 +1,15 @@
+package org.rental.service;
+
+import org.rental.dto.Reservation;
+import org.rental.util.CarType;
+
+/**
+ * Receives reservations that were removed from the live fleet because they ended.
+ */
+@FunctionalInterface
+public interface ReservationArchive {
+    ReservationArchive DISCARD = (type, reservation) -> {
+    };
+
+    void archive(CarType type, Reservation reservation);
+}
@@ -0,0 +1,53 @@
+package org.rental.service;
+
+import lombok.extern.java.Log;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Periodically removes finished reservations from a {@link RentService} on a background thread,
+ * so the live reservations of each car do not grow with the history of the fleet. Reservations expire by the
+ * clock of the service, in the zone of their car type, and waiters whose requested start has passed are told
+ * that no car was found for them. A run that fails is logged and the next one runs as scheduled.
+ */
+@Log
+public class ReservationExpiry implements Closeable {
+    private final ScheduledExecutorService scheduler;
+
+    public ReservationExpiry(RentService service, ReservationArchive archive, Duration interval) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(() -> expire(service, archive),
+                intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Expires reservations without letting a failure escape, as it would cancel all later runs.
+     */
+    private static void expire(RentService service, ReservationArchive archive) {
+        try {
+            service.expireReservations(archive);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Expiring reservations failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
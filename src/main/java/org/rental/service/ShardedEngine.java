@@ -0,0 +1,232 @@
+package org.rental.service;
+
+import org.rental.dto.Car;
+import org.rental.metrics.BookingMetrics;
+import org.rental.util.CarType;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Gives every car type a single writer thread that runs all commands for the type in arrival order.
+ * Cars are only ever changed by the writer of their type, so they need no locks, and commands for different
+ * types never contend. Callers publish their commands to the writer's {@link CommandRing} and wait for the result.
+ * Commands still in a ring when the engine closes are rejected, so no caller waits for a writer that has stopped.
+ */
+class ShardedEngine implements BookingEngine {
+    private static final int RING_CAPACITY = 1024;
+    private static final int SPINS_BEFORE_PARK = 256;
+
+    private final Map<CarType, Shard> shards = new EnumMap<>(CarType.class);
+    private final ReentrantLock pauseLock = new ReentrantLock();
+
+    ShardedEngine(Collection<CarType> types, BookingMetrics metrics) {
+        for (CarType type : types) {
+            shards.put(type, new Shard(type, metrics));
+        }
+    }
+
+    @Override
+    public <T> T submit(CarType type, Supplier<T> command) {
+        Shard shard = shards.get(type);
+        if (shard == null || Thread.currentThread() == shard.writer) {
+            return command.get();
+        }
+        return shard.call(command);
+    }
+
+    /**
+     * Cars are only accessed from the writer of their type or while all writers are paused, so no guard is needed.
+     */
+    @Override
+    public <T> T withCar(CarType type, Car car, Supplier<T> access) {
+        return access.get();
+    }
+
+    /**
+     * Parks every writer on a barrier command and runs the command on the calling thread meanwhile.
+     * Pauses are taken one at a time, so two callers never park the writers in a different order.
+     */
+    @Override
+    public <T> T withAllCars(Supplier<T> command) {
+        pauseLock.lock();
+        try {
+            CountDownLatch paused = new CountDownLatch(shards.size());
+            CountDownLatch resumed = new CountDownLatch(1);
+            AtomicBoolean closed = new AtomicBoolean();
+            try {
+                for (Shard shard : shards.values()) {
+                    shard.publish(() -> {
+                        paused.countDown();
+                        awaitUninterruptibly(resumed);
+                    }, rejected -> {
+                        closed.set(true);
+                        paused.countDown();
+                    });
+                }
+                awaitUninterruptibly(paused);
+                if (closed.get()) {
+                    throw new IllegalStateException("Booking engine is closed");
+                }
+                return command.get();
+            } finally {
+                resumed.countDown();
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        shards.values().forEach(Shard::stop);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A command together with what its publisher is told if the writer stops before running it.
+     */
+    private record Command(Runnable action, Consumer<IllegalStateException> rejection) implements Runnable {
+        @Override
+        public void run() {
+            action.run();
+        }
+    }
+
+    private static final class Shard {
+        private final CommandRing ring = new CommandRing(RING_CAPACITY);
+        private final CarType type;
+        private final BookingMetrics metrics;
+        private final Thread writer;
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        private Shard(CarType type, BookingMetrics metrics) {
+            this.type = type;
+            this.metrics = metrics;
+            writer = new Thread(this::run, "booking-writer-" + type.name().toLowerCase());
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        /**
+         * Time a command waits in the ring before the writer runs it is recorded as its lock wait.
+         */
+        private <T> T call(Supplier<T> command) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            boolean timed = metrics.isEnabled();
+            long published = timed ? System.nanoTime() : 0;
+            publish(() -> {
+                if (timed) {
+                    metrics.recordLockWait(type, System.nanoTime() - published);
+                }
+                try {
+                    result.complete(command.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }, result::completeExceptionally);
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                } else if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * A command published while the engine closes may land after the writer has drained the ring, so the
+         * publisher checks again and rejects what is left once the writer is gone.
+         */
+        private void publish(Runnable action, Consumer<IllegalStateException> rejection) {
+            if (!running) {
+                throw new IllegalStateException("Booking engine is closed");
+            }
+            ring.publish(new Command(action, rejection));
+            if (parked) {
+                LockSupport.unpark(writer);
+            }
+            if (!running) {
+                rejectLeftovers();
+            }
+        }
+
+        /**
+         * Spins briefly on an empty ring before parking, so a steady stream of commands never pays for a wake-up.
+         */
+        private void run() {
+            int idle = 0;
+            while (running || !ring.isEmpty()) {
+                Runnable command = ring.poll();
+                if (command != null) {
+                    command.run();
+                    idle = 0;
+                } else if (++idle < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    parked = true;
+                    if (running && ring.isEmpty()) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                    idle = 0;
+                }
+            }
+        }
+
+        private void stop() {
+            running = false;
+            LockSupport.unpark(writer);
+            rejectLeftovers();
+        }
+
+        /**
+         * Waits for the writer to exit and rejects the commands it left in the ring. Once the writer is gone the
+         * drains are the only consumers of the ring, and they take turns.
+         */
+        private void rejectLeftovers() {
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            synchronized (this) {
+                for (Runnable command = ring.poll(); command != null; command = ring.poll()) {
+                    ((Command) command).rejection().accept(new IllegalStateException("Booking engine is closed"));
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.rental.service;
+
+import org.rental.dto.Reservation;
+import org.rental.dto.Result;
+import org.rental.util.CarType;
+import org.rental.util.EpochMinutes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Requests waiting for a car of their type to become free, indexed by the time they want the car.
+ * <p>
+ * Waiters of a type are kept ordered by start minute. Together with the longest wanted duration of the waiters
+ * still queued this bounds the waiters overlapping a freed interval to one range of that order, so a cancellation
+ * only visits the waiters it can help, however many wait for other times. The same order hands out the waiters
+ * whose time has come without a car having been found for them.
+ */
+class Waitlist {
+    private static final Comparator<Waiter> BY_START = Comparator.comparingLong(Waiter::start)
+            .thenComparingLong(Waiter::ticket);
+
+    private final Map<CarType, Queue> queues = new EnumMap<>(CarType.class);
+    private final ConcurrentHashMap<Long, Waiter> waiters = new ConcurrentHashMap<>();
+    private final AtomicLong lastTicket = new AtomicLong();
+
+    Waitlist() {
+        for (CarType type : CarType.values()) {
+            queues.put(type, new Queue());
+        }
+    }
+
+    Waiter add(CarType type, LocalDateTime start, int days, Consumer<Result> listener) {
+        Reservation reservation = new Reservation(start, days);
+        Waiter waiter = new Waiter(lastTicket.incrementAndGet(), type, reservation, days,
+                EpochMinutes.floor(reservation.getStart()), EpochMinutes.ceil(reservation.getEnd()), listener);
+        restore(waiter);
+        return waiter;
+    }
+
+    /**
+     * Takes the waiter off the list for good or for a promotion attempt.
+     *
+     * @return false if the waiter had already been taken off
+     */
+    boolean claim(Waiter waiter) {
+        if (!waiters.remove(waiter.ticket(), waiter)) {
+            return false;
+        }
+        Queue queue = queues.get(waiter.type());
+        queue.lock.lock();
+        try {
+            queue.byStart.remove(waiter);
+            queue.durations.computeIfPresent(waiter.end() - waiter.start(),
+                    (duration, count) -> count == 1 ? null : count - 1);
+        } finally {
+            queue.lock.unlock();
+        }
+        return true;
+    }
+
+    boolean remove(long ticket) {
+        Waiter waiter = waiters.get(ticket);
+        return waiter != null && claim(waiter);
+    }
+
+    /**
+     * Puts back a waiter that could not be promoted, keeping its ticket and thereby its place.
+     */
+    void restore(Waiter waiter) {
+        Queue queue = queues.get(waiter.type());
+        queue.lock.lock();
+        try {
+            queue.byStart.add(waiter);
+            queue.durations.merge(waiter.end() - waiter.start(), 1, Integer::sum);
+        } finally {
+            queue.lock.unlock();
+        }
+        waiters.put(waiter.ticket(), waiter);
+    }
+
+    /**
+     * Takes off the waiters of the type whose wanted time has started by now, so they can be told no car was
+     * found for them. Waiters claimed for a promotion attempt meanwhile are left to that attempt.
+     *
+     * @return the removed waiters, longest waiting first
+     */
+    List<Waiter> removeStarted(CarType type, LocalDateTime now) {
+        Queue queue = queues.get(type);
+        List<Waiter> started = new ArrayList<>();
+        queue.lock.lock();
+        try {
+            for (Waiter waiter : queue.byStart.headSet(bound(EpochMinutes.floor(now) + 1), false)) {
+                if (!waiter.reservation().getStart().isAfter(now)) {
+                    started.add(waiter);
+                }
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+        started.removeIf(waiter -> !claim(waiter));
+        started.sort(Comparator.comparingLong(Waiter::ticket));
+        return started;
+    }
+
+    /**
+     * Returns the waiters of the type whose wanted time overlaps the freed reservation, longest waiting first.
+     */
+    List<Waiter> overlapping(CarType type, Reservation freed) {
+        long start = EpochMinutes.floor(freed.getStart());
+        long end = EpochMinutes.ceil(freed.getEnd());
+        Queue queue = queues.get(type);
+        List<Waiter> candidates = new ArrayList<>();
+        queue.lock.lock();
+        try {
+            if (queue.byStart.isEmpty()) {
+                return candidates;
+            }
+            long longest = queue.durations.lastKey();
+            for (Waiter waiter : queue.byStart.subSet(bound(start - longest), true, bound(end + 1), false)) {
+                if (waiter.end() >= start) {
+                    candidates.add(waiter);
+                }
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+        candidates.sort(Comparator.comparingLong(Waiter::ticket));
+        return candidates;
+    }
+
+    /**
+     * Returns every waiter of the type, longest waiting first.
+     */
+    List<Waiter> all(CarType type) {
+        Queue queue = queues.get(type);
+        List<Waiter> candidates;
+        queue.lock.lock();
+        try {
+            candidates = new ArrayList<>(queue.byStart);
+        } finally {
+            queue.lock.unlock();
+        }
+        candidates.sort(Comparator.comparingLong(Waiter::ticket));
+        return candidates;
+    }
+
+    int size() {
+        return waiters.size();
+    }
+
+    private static Waiter bound(long start) {
+        return new Waiter(Long.MIN_VALUE, null, null, 0, start, start, null);
+    }
+
+    record Waiter(long ticket, CarType type, Reservation reservation, int days, long start, long end,
+                  Consumer<Result> listener) {
+    }
+
+    private static final class Queue {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Waiter> byStart = new TreeSet<>(BY_START);
+        /**
+         * Number of queued waiters per wanted duration, so the longest is known again once its waiters leave.
+         */
+        private final TreeMap<Long, Integer> durations = new TreeMap<>();
+    }
+}
@@ -0,0 +1,269 @@
+package org.rental.storage;
+
+import org.rental.dto.Reservation;
+import org.rental.util.EpochMinutes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Store answering conflict checks from two hourly calendar bitmaps over a rolling horizon, in front of a
+ * {@link PrimitiveReservationStore} that keeps the exact reservations.
+ * <p>
+ * Over a window of {@value #HORIZON_HOURS} hours (about 22 months) one bitmap marks the hours a reservation
+ * touches and another the hours one covers completely. A request overlapping a completely covered hour is
+ * rejected, and one touching no marked hour is accepted, each with a few word-wise operations; only requests
+ * sharing a partly used hour with a reservation, or reaching outside the window, fall back to the exact store.
+ * Whole-hour and whole-day bookings, for which this store is meant, never need the fallback unless they touch.
+ * <p>
+ * The window opens at the hour of the first reservation and moves forward when finished reservations are removed,
+ * so it always starts at the oldest hour still relevant. Both bitmaps are rings indexed by hour modulo the horizon,
+ * and moving the window only clears the hours that fall out of it and marks those that come in.
+ */
+public class BitmapReservationStore implements ReservationStore {
+    static final int HORIZON_HOURS = 1 << 14;
+    private static final int WORDS = HORIZON_HOURS >>> 6;
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private final PrimitiveReservationStore exact = new PrimitiveReservationStore();
+    private long[] touched;
+    private long[] covered;
+    private long firstHour;
+
+    @Override
+    public boolean add(Reservation reservation) {
+        long start = EpochMinutes.floor(reservation.getStart());
+        long end = EpochMinutes.ceil(reservation.getEnd());
+        if (touched == null) {
+            touched = new long[WORDS];
+            covered = new long[WORDS];
+            firstHour = hourOf(start);
+        }
+        switch (probe(start, end)) {
+            case TAKEN -> {
+                return false;
+            }
+            case FREE -> exact.insert(start, end);
+            case UNDECIDED -> {
+                if (!exact.add(start, end)) {
+                    return false;
+                }
+            }
+        }
+        mark(start, end);
+        return true;
+    }
+
+    /**
+     * After the reservation is removed, only its direct neighbours can share the hours at its edges,
+     * so marking them again restores those hours.
+     */
+    @Override
+    public boolean remove(Reservation reservation) {
+        long start = EpochMinutes.floor(reservation.getStart());
+        long end = EpochMinutes.ceil(reservation.getEnd());
+        if (!exact.remove(start, end)) {
+            return false;
+        }
+        unmark(start, end);
+        int next = exact.insertionPoint(start);
+        if (next > 0) {
+            mark(exact.startAt(next - 1), exact.endAt(next - 1));
+        }
+        if (next < exact.size()) {
+            mark(exact.startAt(next), exact.endAt(next));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isFree(Reservation reservation) {
+        long start = EpochMinutes.floor(reservation.getStart());
+        long end = EpochMinutes.ceil(reservation.getEnd());
+        return switch (probe(start, end)) {
+            case FREE -> true;
+            case TAKEN -> false;
+            case UNDECIDED -> exact.isFree(start, end);
+        };
+    }
+
+    @Override
+    public List<Reservation> overlapping(Reservation range) {
+        return exact.overlapping(range);
+    }
+
+    @Override
+    public boolean endsBefore(Reservation reservation, LocalDateTime cutoff) {
+        return exact.endsBefore(reservation, cutoff);
+    }
+
+    /**
+     * Removes the finished reservations and moves the window to start at the hour of the cutoff.
+     */
+    @Override
+    public int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink) {
+        List<Reservation> finished = new ArrayList<>();
+        int removed = exact.removeEndedBefore(cutoff, finished::add);
+        for (Reservation reservation : finished) {
+            unmark(EpochMinutes.floor(reservation.getStart()), EpochMinutes.ceil(reservation.getEnd()));
+            sink.accept(reservation);
+        }
+        if (removed > 0 && exact.size() > 0) {
+            mark(exact.startAt(0), exact.endAt(0));
+        }
+        if (touched != null) {
+            moveWindow(hourOf(EpochMinutes.floor(cutoff)));
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return exact.size();
+    }
+
+    @Override
+    public List<Reservation> toList() {
+        return exact.toList();
+    }
+
+    /**
+     * Decides from the bitmaps whether the closed interval of epoch minutes is free.
+     */
+    private Verdict probe(long start, long end) {
+        long from = hourOf(start);
+        long to = hourOf(end);
+        if (touched == null) {
+            return Verdict.FREE;
+        }
+        if (from < firstHour || to >= firstHour + HORIZON_HOURS) {
+            return Verdict.UNDECIDED;
+        }
+        if (anySet(covered, from, to)) {
+            return Verdict.TAKEN;
+        }
+        return anySet(touched, from, to) ? Verdict.UNDECIDED : Verdict.FREE;
+    }
+
+    private void mark(long start, long end) {
+        update(touched, hourOf(start), hourOf(end), true);
+        update(covered, firstFullHour(start), lastFullHour(end), true);
+    }
+
+    private void unmark(long start, long end) {
+        update(touched, hourOf(start), hourOf(end), false);
+        update(covered, firstFullHour(start), lastFullHour(end), false);
+    }
+
+    /**
+     * Hours leaving the window share their ring positions with the hours entering it, so they are cleared first
+     * and the reservations reaching into the new hours are marked afterwards.
+     */
+    private void moveWindow(long hour) {
+        if (hour <= firstHour) {
+            return;
+        }
+        long previousEnd = firstHour + HORIZON_HOURS;
+        update(touched, firstHour, Math.min(hour, previousEnd) - 1, false);
+        update(covered, firstHour, Math.min(hour, previousEnd) - 1, false);
+        firstHour = hour;
+        long enteringFrom = Math.max(previousEnd, hour);
+        for (int position = exact.size() - 1; position >= 0; position--) {
+            if (hourOf(exact.endAt(position)) < enteringFrom) {
+                break;
+            }
+            mark(exact.startAt(position), exact.endAt(position));
+        }
+    }
+
+    /**
+     * Sets or clears the bits of the hours between from and to that lie inside the window.
+     */
+    private void update(long[] bits, long from, long to, boolean set) {
+        if (bits == null) {
+            return;
+        }
+        long first = Math.max(from, firstHour);
+        long last = Math.min(to, firstHour + HORIZON_HOURS - 1);
+        if (first > last) {
+            return;
+        }
+        int firstSlot = slotOf(first);
+        int lastSlot = slotOf(last);
+        if (firstSlot <= lastSlot) {
+            updateSlots(bits, firstSlot, lastSlot, set);
+        } else {
+            updateSlots(bits, firstSlot, HORIZON_HOURS - 1, set);
+            updateSlots(bits, 0, lastSlot, set);
+        }
+    }
+
+    private static void updateSlots(long[] bits, int firstSlot, int lastSlot, boolean set) {
+        int firstWord = firstSlot >>> 6;
+        int lastWord = lastSlot >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= -1L << firstSlot;
+            }
+            if (word == lastWord) {
+                mask &= -1L >>> (63 - (lastSlot & 63));
+            }
+            bits[word] = set ? bits[word] | mask : bits[word] & ~mask;
+        }
+    }
+
+    private boolean anySet(long[] bits, long from, long to) {
+        int firstSlot = slotOf(from);
+        int lastSlot = slotOf(to);
+        if (firstSlot <= lastSlot) {
+            return anySetInSlots(bits, firstSlot, lastSlot);
+        }
+        return anySetInSlots(bits, firstSlot, HORIZON_HOURS - 1) || anySetInSlots(bits, 0, lastSlot);
+    }
+
+    private static boolean anySetInSlots(long[] bits, int firstSlot, int lastSlot) {
+        int firstWord = firstSlot >>> 6;
+        int lastWord = lastSlot >>> 6;
+        for (int word = firstWord; word <= lastWord; word++) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= -1L << firstSlot;
+            }
+            if (word == lastWord) {
+                mask &= -1L >>> (63 - (lastSlot & 63));
+            }
+            if ((bits[word] & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int slotOf(long hour) {
+        return (int) (hour & (HORIZON_HOURS - 1));
+    }
+
+    private static long hourOf(long minute) {
+        return Math.floorDiv(minute, MINUTES_PER_HOUR);
+    }
+
+    private static long firstFullHour(long start) {
+        return Math.floorDiv(start + MINUTES_PER_HOUR - 1, MINUTES_PER_HOUR);
+    }
+
+    private static long lastFullHour(long end) {
+        return Math.floorDiv(end - (MINUTES_PER_HOUR - 1), MINUTES_PER_HOUR);
+    }
+
+    private enum Verdict {
+        FREE,
+        TAKEN,
+        /**
+         * The interval shares an hour with a reservation without covering it, or leaves the window.
+         */
+        UNDECIDED
+    }
+}
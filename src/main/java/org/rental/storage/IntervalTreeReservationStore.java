@@ -0,0 +1,227 @@
+package org.rental.storage;
+
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Store keeping the reservations in an AVL tree ordered by start, where every node also records the latest end in
+ * its subtree.
+ * <p>
+ * The latest end tells a search whether a subtree can hold a reservation overlapping a given range, so a conflict
+ * check follows a single path and listing the overlapping reservations visits only the paths leading to them.
+ * Both take O(log n) steps plus one per reservation found, and neither relies on the stored reservations being
+ * disjoint.
+ */
+public class IntervalTreeReservationStore implements ReservationStore {
+    private Node root;
+    private int size;
+
+    @Override
+    public boolean add(Reservation reservation) {
+        if (!isFree(reservation)) {
+            return false;
+        }
+        root = insert(root, reservation);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Reservation reservation) {
+        int before = size;
+        root = delete(root, reservation);
+        return size < before;
+    }
+
+    @Override
+    public boolean isFree(Reservation reservation) {
+        Node node = root;
+        while (node != null) {
+            if (node.reservation.overlaps(reservation)) {
+                return false;
+            }
+            // an overlap on the left exists if any left reservation reaches the start; otherwise only the right can hold one
+            node = node.left != null && !node.left.maxEnd.isBefore(reservation.getStart()) ? node.left : node.right;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Reservation> overlapping(Reservation range) {
+        List<Reservation> result = new ArrayList<>();
+        collectOverlapping(root, range, result);
+        return result;
+    }
+
+    @Override
+    public int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink) {
+        int removed = 0;
+        while (root != null) {
+            Reservation first = first(root);
+            if (!first.getEnd().isBefore(cutoff)) {
+                break;
+            }
+            root = delete(root, first);
+            sink.accept(first);
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Reservation> toList() {
+        List<Reservation> result = new ArrayList<>(size);
+        collectAll(root, result);
+        return result;
+    }
+
+    /**
+     * Visits the subtrees in start order, skipping those whose latest end is before the range and, right of a
+     * node starting after the range, those that start after it too.
+     */
+    private static void collectOverlapping(Node node, Reservation range, List<Reservation> result) {
+        if (node == null || node.maxEnd.isBefore(range.getStart())) {
+            return;
+        }
+        collectOverlapping(node.left, range, result);
+        if (node.reservation.getStart().isAfter(range.getEnd())) {
+            return;
+        }
+        if (node.reservation.overlaps(range)) {
+            result.add(node.reservation);
+        }
+        collectOverlapping(node.right, range, result);
+    }
+
+    private static void collectAll(Node node, List<Reservation> result) {
+        if (node != null) {
+            collectAll(node.left, result);
+            result.add(node.reservation);
+            collectAll(node.right, result);
+        }
+    }
+
+    private static Reservation first(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.reservation;
+    }
+
+    private static Node insert(Node node, Reservation reservation) {
+        if (node == null) {
+            return new Node(reservation);
+        }
+        if (reservation.compareTo(node.reservation) < 0) {
+            node.left = insert(node.left, reservation);
+        } else {
+            node.right = insert(node.right, reservation);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, Reservation reservation) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = reservation.compareTo(node.reservation);
+        if (comparison < 0) {
+            node.left = delete(node.left, reservation);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, reservation);
+        } else {
+            size--;
+            if (node.left == null || node.right == null) {
+                return node.left != null ? node.left : node.right;
+            }
+            Reservation successor = first(node.right);
+            node.right = removeFirst(node.right);
+            node.reservation = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node removeFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeFirst(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        node.update();
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private Reservation reservation;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        /**
+         * Latest end of the reservations in the subtree rooted here.
+         */
+        private LocalDateTime maxEnd;
+
+        private Node(Reservation reservation) {
+            this.reservation = reservation;
+            this.maxEnd = reservation.getEnd();
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+            maxEnd = reservation.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.rental.storage;
+
+import org.rental.dto.Reservation;
+import org.rental.util.EpochMinutes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact store keeping reservations as epoch-minute pairs in two sorted {@code long} arrays.
+ * {@link Reservation} objects are only created when the reservations are listed.
+ */
+public class PrimitiveReservationStore implements ReservationStore {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public boolean add(Reservation reservation) {
+        return add(EpochMinutes.floor(reservation.getStart()), EpochMinutes.ceil(reservation.getEnd()));
+    }
+
+    /**
+     * Adds the closed interval [start, end] of epoch minutes unless it overlaps a stored one.
+     */
+    public boolean add(long start, long end) {
+        int position = insertionPoint(start);
+        if (overlapsNeighbours(position, start, end)) {
+            return false;
+        }
+        insertAt(position, start, end);
+        return true;
+    }
+
+    /**
+     * Adds an interval already known not to overlap a stored one.
+     */
+    void insert(long start, long end) {
+        insertAt(insertionPoint(start), start, end);
+    }
+
+    private void insertAt(int position, long start, long end) {
+        if (size == starts.length) {
+            int capacity = size + (size >> 1) + 1;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        starts[position] = start;
+        ends[position] = end;
+        size++;
+    }
+
+    @Override
+    public boolean remove(Reservation reservation) {
+        return remove(EpochMinutes.floor(reservation.getStart()), EpochMinutes.ceil(reservation.getEnd()));
+    }
+
+    public boolean remove(long start, long end) {
+        int position = insertionPoint(start);
+        if (position == size || starts[position] != start || ends[position] != end) {
+            return false;
+        }
+        System.arraycopy(starts, position + 1, starts, position, size - position - 1);
+        System.arraycopy(ends, position + 1, ends, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean isFree(Reservation reservation) {
+        return isFree(EpochMinutes.floor(reservation.getStart()), EpochMinutes.ceil(reservation.getEnd()));
+    }
+
+    boolean isFree(long start, long end) {
+        return !overlapsNeighbours(insertionPoint(start), start, end);
+    }
+
+    @Override
+    public List<Reservation> overlapping(Reservation range) {
+        long start = EpochMinutes.floor(range.getStart());
+        long end = EpochMinutes.ceil(range.getEnd());
+        int position = insertionPoint(start);
+        if (position > 0 && ends[position - 1] >= start) {
+            position--;
+        }
+        List<Reservation> result = new ArrayList<>();
+        for (; position < size && starts[position] <= end; position++) {
+            result.add(toReservation(position));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the end rounded up to the minute, as it is stored, with the cutoff rounded down.
+     */
+    @Override
+    public boolean endsBefore(Reservation reservation, LocalDateTime cutoff) {
+        return EpochMinutes.ceil(reservation.getEnd()) < EpochMinutes.floor(cutoff);
+    }
+
+    /**
+     * Ends are sorted like starts, so the finished reservations form a prefix of the arrays.
+     * The arrays shrink once they are mostly empty, so storage follows the live reservations.
+     */
+    @Override
+    public int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink) {
+        long cutoffMinute = EpochMinutes.floor(cutoff);
+        int removed = 0;
+        while (removed < size && ends[removed] < cutoffMinute) {
+            sink.accept(toReservation(removed));
+            removed++;
+        }
+        if (removed > 0) {
+            size -= removed;
+            int capacity = starts.length > INITIAL_CAPACITY && size < starts.length / 4
+                    ? Math.max(INITIAL_CAPACITY, size * 2)
+                    : starts.length;
+            long[] newStarts = capacity == starts.length ? starts : new long[capacity];
+            long[] newEnds = capacity == ends.length ? ends : new long[capacity];
+            System.arraycopy(starts, removed, newStarts, 0, size);
+            System.arraycopy(ends, removed, newEnds, 0, size);
+            starts = newStarts;
+            ends = newEnds;
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<Reservation> toList() {
+        List<Reservation> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(toReservation(i));
+        }
+        return result;
+    }
+
+    /**
+     * Number of reservations the arrays hold before they grow; each costs two {@code long}s whether used or not.
+     */
+    int capacity() {
+        return starts.length;
+    }
+
+    long startAt(int position) {
+        return starts[position];
+    }
+
+    long endAt(int position) {
+        return ends[position];
+    }
+
+    private Reservation toReservation(int position) {
+        return new Reservation(EpochMinutes.toDateTime(starts[position]), EpochMinutes.toDateTime(ends[position]));
+    }
+
+    private boolean overlapsNeighbours(int position, long start, long end) {
+        return (position > 0 && ends[position - 1] >= start) || (position < size && starts[position] <= end);
+    }
+
+    /**
+     * Index of the first stored interval starting at or after the given minute.
+     */
+    int insertionPoint(long start) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,61 @@
+package org.rental.storage;
+
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Holds the non-overlapping reservations of a single car.
+ * Implementations are not thread-safe; callers guard access per car.
+ */
+public interface ReservationStore {
+
+    /**
+     * Adds the reservation unless it overlaps one that is already stored.
+     *
+     * @return true if the reservation was added
+     */
+    boolean add(Reservation reservation);
+
+    /**
+     * Removes a reservation previously accepted by {@link #add(Reservation)}.
+     * Only a stored reservation with the same start and end is removed, never one that merely overlaps.
+     *
+     * @return true if the reservation was stored
+     */
+    boolean remove(Reservation reservation);
+
+    /**
+     * Returns true if no stored reservation overlaps the given one.
+     */
+    boolean isFree(Reservation reservation);
+
+    /**
+     * Returns the stored reservations overlapping the given one, ordered by start time.
+     */
+    List<Reservation> overlapping(Reservation range);
+
+    /**
+     * Returns true if {@link #removeEndedBefore(LocalDateTime, Consumer)} would remove the given reservation,
+     * comparing its end the way this store keeps it.
+     */
+    default boolean endsBefore(Reservation reservation, LocalDateTime cutoff) {
+        return reservation.getEnd().isBefore(cutoff);
+    }
+
+    /**
+     * Removes every reservation that ends before the cutoff and hands it to the sink, oldest first.
+     *
+     * @return the number of removed reservations
+     */
+    int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink);
+
+    int size();
+
+    /**
+     * Returns the stored reservations ordered by start time.
+     */
+    List<Reservation> toList();
+}
@@ -0,0 +1,75 @@
+package org.rental.storage;
+
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Store keeping the reservations in a {@link TreeSet} ordered by start. Stored reservations never overlap, so
+ * their ends are ordered like their starts, and only the neighbours of a new reservation can conflict with it.
+ */
+public class TreeSetReservationStore implements ReservationStore {
+    private final TreeSet<Reservation> reservations = new TreeSet<>();
+
+    @Override
+    public boolean add(Reservation reservation) {
+        return isFree(reservation) && reservations.add(reservation);
+    }
+
+    @Override
+    public boolean remove(Reservation reservation) {
+        return reservations.remove(reservation);
+    }
+
+    /**
+     * The stored reservation ordered last among those not after the given one has the latest end of them, and the
+     * one ordered first after it has the earliest start of the rest, so checking both finds any conflict.
+     */
+    @Override
+    public boolean isFree(Reservation reservation) {
+        Reservation lower = reservations.floor(reservation);
+        Reservation higher = reservations.higher(reservation);
+        return (lower == null || !lower.overlaps(reservation)) && (higher == null || !higher.overlaps(reservation));
+    }
+
+    @Override
+    public List<Reservation> overlapping(Reservation range) {
+        Reservation lower = reservations.floor(range);
+        NavigableSet<Reservation> candidates = lower != null && lower.overlaps(range)
+                ? reservations.tailSet(lower, true)
+                : reservations.tailSet(range, false);
+        List<Reservation> result = new ArrayList<>();
+        for (Reservation reservation : candidates) {
+            if (reservation.getStart().isAfter(range.getEnd())) {
+                break;
+            }
+            result.add(reservation);
+        }
+        return result;
+    }
+
+    @Override
+    public int removeEndedBefore(LocalDateTime cutoff, Consumer<Reservation> sink) {
+        int removed = 0;
+        while (!reservations.isEmpty() && reservations.first().getEnd().isBefore(cutoff)) {
+            sink.accept(reservations.pollFirst());
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return reservations.size();
+    }
+
+    @Override
+    public List<Reservation> toList() {
+        return new ArrayList<>(reservations);
+    }
+}
@@ -0,0 +1,73 @@
+package org.rental.util;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock that reads its source only once per tick, for paths that ask for the time on every request but can accept
+ * it being up to one tick old.
+ * <p>
+ * A background thread stores the instant of the source every tick, so reading the clock is a single volatile read.
+ * Clocks for other zones made by {@link #withZone} share the ticker and always show the same instant; closing any
+ * of them stops the ticker, after which they all keep the last instant read.
+ */
+public final class CachedClock extends Clock implements Closeable {
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    public CachedClock(Clock source, Duration tick) {
+        this(new Ticker(source, tick), source.getZone());
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CachedClock(ticker, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return ticker.now;
+    }
+
+    @Override
+    public void close() {
+        ticker.scheduler.shutdown();
+        try {
+            ticker.scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Ticker {
+        private final ScheduledExecutorService scheduler;
+        private volatile Instant now;
+
+        private Ticker(Clock source, Duration tick) {
+            this.now = source.instant();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "clock-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long tickNanos = tick.toNanos();
+            scheduler.scheduleAtFixedRate(() -> now = source.instant(), tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -10,10 +10,27 @@ import org.rental.dto.Van;
 public class CarFactory {
 
     public Car create(CarType type) {
+        return create(type, StorageType.INTERVAL_TREE);
+    }
+
+    public Car create(CarType type, StorageType storage) {
+        return switch (type) {
+            case SEDAN -> new Sedan(storage.createStore());
+            case SUV -> new Suv(storage.createStore());
+            case VAN -> new Van(storage.createStore());
+        };
+    }
+
+    /**
+     * Creates a car of a fleet, which gets its reservation store on its first reservation.
+     *
+     * @param id position of the car within the fleet of its type
+     */
+    public Car create(CarType type, int id, StorageType storage) {
         return switch (type) {
-            case SEDAN -> new Sedan();
-            case SUV -> new Suv();
-            case VAN -> new Van();
+            case SEDAN -> new Sedan(id, storage.storeFactory());
+            case SUV -> new Suv(id, storage.storeFactory());
+            case VAN -> new Van(id, storage.storeFactory());
         };
     }
 
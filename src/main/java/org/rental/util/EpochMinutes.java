@@ -0,0 +1,30 @@
+package org.rental.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Encodes {@link LocalDateTime} values as minutes since the epoch so intervals can be kept in primitive arrays.
+ * Start times are rounded down and end times up, which keeps overlap checks on the encoded values conservative.
+ */
+@UtilityClass
+public class EpochMinutes {
+
+    public long floor(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public long ceil(LocalDateTime dateTime) {
+        long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (dateTime.getNano() > 0) {
+            seconds++;
+        }
+        return Math.floorDiv(seconds + 59, 60);
+    }
+
+    public LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,34 @@
+package org.rental.util;
+
+import org.rental.storage.BitmapReservationStore;
+import org.rental.storage.IntervalTreeReservationStore;
+import org.rental.storage.PrimitiveReservationStore;
+import org.rental.storage.ReservationStore;
+import org.rental.storage.TreeSetReservationStore;
+
+import java.util.function.Supplier;
+
+public enum StorageType {
+    TREE_SET,
+    PRIMITIVE,
+    BITMAP,
+    INTERVAL_TREE;
+
+    private final Supplier<ReservationStore> storeFactory = this::createStore;
+
+    public ReservationStore createStore() {
+        return switch (this) {
+            case TREE_SET -> new TreeSetReservationStore();
+            case PRIMITIVE -> new PrimitiveReservationStore();
+            case BITMAP -> new BitmapReservationStore();
+            case INTERVAL_TREE -> new IntervalTreeReservationStore();
+        };
+    }
+
+    /**
+     * Returns {@link #createStore} as a factory shared by all cars of a fleet.
+     */
+    public Supplier<ReservationStore> storeFactory() {
+        return storeFactory;
+    }
+}
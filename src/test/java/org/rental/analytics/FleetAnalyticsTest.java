@@ -0,0 +1,89 @@
+package org.rental.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.rental.util.EpochMinutes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FleetAnalyticsTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2100, 3, 1);
+
+    @Test
+    void report_fewReservations_shouldSumUtilizationPeaksAndGaps() {
+        //given
+        CarReservations reservations = new CarReservations(3, 2);
+        LocalDateTime day = FIRST_DAY.atStartOfDay();
+        reservations.count(0);
+        reservations.count(0);
+        reservations.count(1);
+        reservations.allocate();
+        // added out of order, as a parallel scan does
+        reservations.add(0, minute(day.plusHours(18)), minute(day.plusHours(30)));
+        reservations.add(0, minute(day.plusHours(6)), minute(day.plusHours(12)));
+        reservations.add(1, minute(day.minusDays(1)), minute(day.plusMinutes(90)));
+
+        //when
+        UtilizationReport result = FleetAnalytics.report(reservations, FIRST_DAY, FIRST_DAY.plusDays(1));
+
+        //then
+        assertThat(result.getReservationCount()).isEqualTo(3);
+        assertThat(result.utilization(FIRST_DAY)).isCloseTo((6 * 60 + 6 * 60 + 90) / (2.0 * 24 * 60), within(1e-9));
+        assertThat(result.utilization(FIRST_DAY.plusDays(1))).isCloseTo(6 * 60 / (2.0 * 24 * 60), within(1e-9));
+        assertThat(result.utilization(FIRST_DAY.plusDays(2))).isZero();
+        assertThat(result.peakCars(FIRST_DAY)).isEqualTo(1);
+        assertThat(result.peakCars(FIRST_DAY.plusDays(1))).isEqualTo(1);
+        assertThat(result.getIdleGaps().getCount()).isEqualTo(1);
+        assertThat(result.getIdleGaps().getMax()).isEqualTo(6 * 60);
+    }
+
+    @Test
+    void report_manyCars_shouldMatchSequentialCount() {
+        //given
+        int cars = 5000;
+        CarReservations reservations = new CarReservations(cars, cars);
+        long[][] booked = new long[cars][];
+        Random random = new Random(7);
+        long firstMinute = minute(FIRST_DAY.atStartOfDay());
+        for (int car = 0; car < cars; car++) {
+            booked[car] = new long[]{firstMinute + random.nextInt(10 * 24 * 60), 0};
+            booked[car][1] = booked[car][0] + 1 + random.nextInt(3 * 24 * 60);
+            reservations.count(car);
+        }
+        reservations.allocate();
+        for (int car = 0; car < cars; car++) {
+            reservations.add(car, booked[car][0], booked[car][1]);
+        }
+
+        //when
+        UtilizationReport result = FleetAnalytics.report(reservations, FIRST_DAY, FIRST_DAY.plusDays(9));
+
+        //then
+        for (int day = 0; day < 10; day++) {
+            long dayStart = firstMinute + day * 24 * 60L;
+            int peak = 0;
+            long reserved = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                long instant = dayStart + hour * 60L;
+                int covering = 0;
+                for (long[] reservation : booked) {
+                    covering += reservation[0] <= instant && instant < reservation[1] ? 1 : 0;
+                }
+                peak = Math.max(peak, covering);
+            }
+            for (long[] reservation : booked) {
+                reserved += Math.max(0, Math.min(reservation[1], dayStart + 24 * 60) - Math.max(reservation[0], dayStart));
+            }
+            assertThat(result.peakCars(FIRST_DAY.plusDays(day))).isEqualTo(peak);
+            assertThat(result.utilization(FIRST_DAY.plusDays(day))).isCloseTo((double) reserved / cars / (24 * 60), within(1e-9));
+        }
+    }
+
+    private static long minute(LocalDateTime dateTime) {
+        return EpochMinutes.floor(dateTime);
+    }
+}
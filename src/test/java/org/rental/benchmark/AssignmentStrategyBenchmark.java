@@ -0,0 +1,64 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.service.AssignmentStrategy;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books a mix of short and long rentals with each {@link AssignmentStrategy}.
+ * Besides the per-booking latency, the {@code accepted} and {@code rejected} counters show
+ * how well each strategy keeps room for long rentals once the fleet fills up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignmentStrategyBenchmark {
+    private static final LocalDateTime HORIZON_START = LocalDateTime.of(2100, 1, 1, 0, 0);
+    private static final int HORIZON_DAYS = 180;
+
+    @Param({"100", "1000"})
+    public int fleetSize;
+
+    @Param({"FIRST_FIT", "BEST_FIT", "LEAST_LOADED"})
+    public AssignmentStrategy strategy;
+
+    private RentService service;
+    private SplittableRandom random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Acceptance {
+        public long accepted;
+        public long rejected;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(CarType.SUV, fleetSize),
+                RentServiceConfig.builder().assignment(strategy).build());
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public boolean rentCar(Acceptance acceptance) {
+        LocalDateTime start = HORIZON_START.plusHours(random.nextInt(HORIZON_DAYS * 24));
+        int days = random.nextInt(10) == 0 ? 7 + random.nextInt(14) : random.nextInt(4);
+        boolean successful = service.rentCar(CarType.SUV, start, days).isSuccessful();
+        if (successful) {
+            acceptance.accepted++;
+        } else {
+            acceptance.rejected++;
+        }
+        return successful;
+    }
+}
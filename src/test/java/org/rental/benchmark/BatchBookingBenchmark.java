@@ -0,0 +1,67 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.BookingRequest;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a group booking of 40 sedans and 5 vans made through {@link RentService#rentCars}
+ * with the same requests sent one by one through {@link RentService#rentCar}.
+ * Every invocation books a new week, so the fleet never runs out of capacity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBookingBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    @Param({"100", "1000"})
+    public int fleetSize;
+
+    private RentService service;
+    private long week;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(CarType.SEDAN, fleetSize, CarType.VAN, fleetSize / 10), StorageType.TREE_SET);
+        week = 0;
+    }
+
+    private List<BookingRequest> nextGroup() {
+        LocalDateTime start = START.plusWeeks(week++);
+        List<BookingRequest> requests = new ArrayList<>(45);
+        for (int i = 0; i < 40; i++) {
+            requests.add(new BookingRequest(CarType.SEDAN, start, 6));
+        }
+        for (int i = 0; i < 5; i++) {
+            requests.add(new BookingRequest(CarType.VAN, start, 6));
+        }
+        return requests;
+    }
+
+    @Benchmark
+    public List<Result> batch() {
+        return service.rentCars(nextGroup());
+    }
+
+    @Benchmark
+    public List<Result> singleCalls() {
+        List<Result> results = new ArrayList<>(45);
+        for (BookingRequest request : nextGroup()) {
+            results.add(service.rentCar(request.getType(), request.getStart(), request.getDays()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,76 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RentService#rentCar} on fleets of different sizes and reservation densities.
+ * Each car is preloaded with evenly spaced two-day reservations over a one year horizon,
+ * so {@code reservationsPerCar = 0} is an empty fleet and {@code 120} leaves roughly one free day between bookings.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="BookingBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+    static final LocalDateTime HORIZON_START = LocalDateTime.of(2100, 1, 1, 0, 0);
+    static final int HORIZON_DAYS = 365;
+    static final CarType TYPE = CarType.SEDAN;
+
+    @Param({"10", "100", "1000"})
+    public int fleetSize;
+
+    @Param({"0", "20", "120"})
+    public int reservationsPerCar;
+
+    @Param({"TREE_SET", "PRIMITIVE"})
+    public StorageType storage;
+
+    private RentService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = preloadedService(fleetSize, reservationsPerCar, storage);
+    }
+
+    static RentService preloadedService(int fleetSize, int reservationsPerCar, StorageType storage) {
+        RentService service = new RentService(Map.of(TYPE, fleetSize), storage);
+        for (int slot = 0; slot < reservationsPerCar; slot++) {
+            LocalDateTime start = HORIZON_START.plusDays((long) slot * HORIZON_DAYS / reservationsPerCar);
+            for (int car = 0; car < fleetSize; car++) {
+                service.rentCar(TYPE, start, 2);
+            }
+        }
+        return service;
+    }
+
+    static Result randomBooking(RentService service) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = HORIZON_START.plusHours(random.nextInt(HORIZON_DAYS * 24));
+        return service.rentCar(TYPE, start, random.nextInt(3));
+    }
+
+    @Benchmark
+    public void rentCar(Blackhole blackhole) {
+        blackhole.consume(randomBooking(service));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void rentCarFourThreads(Blackhole blackhole) {
+        blackhole.consume(randomBooking(service));
+    }
+}
@@ -0,0 +1,151 @@
+package org.rental.benchmark;
+
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+import org.rental.util.ManualClock;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A recorded stretch of booking traffic, replayed deterministically through a {@link RentService}.
+ * <p>
+ * Requests are kept in arrival order, one per line of the recording: {@code <epoch millis> RENT <type> <start> <days>},
+ * {@code <epoch millis> CANCEL <rent>} or {@code <epoch millis> MODIFY <rent> <days>}, where {@code <rent>} is the
+ * index of an earlier RENT request. Replaying moves a {@link ManualClock} to the arrival of each request instead of
+ * waiting for it, so a day of traffic runs as fast as the service can take it, and a fresh service fed the same
+ * recording always ends in the same state.
+ */
+final class BookingTraffic {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final List<Request> requests;
+
+    private BookingTraffic(List<Request> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Generates a day of traffic: mostly bookings starting up to two months ahead, with some of them cancelled
+     * or changed later the same day.
+     */
+    static BookingTraffic generate(LocalDate day, int count, long seed) {
+        Random random = new Random(seed);
+        long dayStart = day.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long[] arrivals = new long[count];
+        for (int i = 0; i < count; i++) {
+            arrivals[i] = dayStart + (long) (random.nextDouble() * MILLIS_PER_DAY);
+        }
+        Arrays.sort(arrivals);
+
+        CarType[] types = CarType.values();
+        List<Request> requests = new ArrayList<>(count);
+        List<Integer> rents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Instant at = Instant.ofEpochMilli(arrivals[i]);
+            int draw = random.nextInt(10);
+            if (draw < 7 || rents.isEmpty()) {
+                LocalDateTime start = LocalDateTime.ofInstant(at, ZoneOffset.UTC).withMinute(0).withSecond(0).withNano(0)
+                        .plusHours(1 + random.nextInt(60 * 24));
+                rents.add(i);
+                requests.add(new Request(at, Kind.RENT, types[random.nextInt(types.length)], start, random.nextInt(8), -1));
+            } else {
+                int rent = rents.get(random.nextInt(rents.size()));
+                requests.add(draw < 9
+                        ? new Request(at, Kind.CANCEL, null, null, 0, rent)
+                        : new Request(at, Kind.MODIFY, null, null, random.nextInt(8), rent));
+            }
+        }
+        return new BookingTraffic(requests);
+    }
+
+    static BookingTraffic read(Path file) throws IOException {
+        List<Request> requests = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                Instant at = Instant.ofEpochMilli(Long.parseLong(fields[0]));
+                Kind kind = Kind.valueOf(fields[1]);
+                requests.add(switch (kind) {
+                    case RENT -> new Request(at, kind, CarType.valueOf(fields[2]), LocalDateTime.parse(fields[3]),
+                            Integer.parseInt(fields[4]), -1);
+                    case CANCEL -> new Request(at, kind, null, null, 0, Integer.parseInt(fields[2]));
+                    case MODIFY -> new Request(at, kind, null, null, Integer.parseInt(fields[3]), Integer.parseInt(fields[2]));
+                });
+            }
+        }
+        return new BookingTraffic(requests);
+    }
+
+    void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (Request request : requests) {
+                writer.write(request.at().toEpochMilli() + " " + request.kind() + " " + switch (request.kind()) {
+                    case RENT -> request.type() + " " + request.start() + " " + request.days();
+                    case CANCEL -> String.valueOf(request.rent());
+                    case MODIFY -> request.rent() + " " + request.days();
+                });
+                writer.newLine();
+            }
+        }
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    Instant getStart() {
+        return requests.isEmpty() ? Instant.EPOCH : requests.get(0).at();
+    }
+
+    /**
+     * Feeds every request to the service at its recorded time on the clock the service was built with.
+     * Cancellations and changes of bookings that failed are skipped.
+     *
+     * @return the number of successful requests
+     */
+    int replay(RentService service, ManualClock clock) {
+        long[] reservationIds = new long[requests.size()];
+        int successful = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            clock.set(request.at());
+            Result result = switch (request.kind()) {
+                case RENT -> service.rentCar(request.type(), request.start(), request.days());
+                case CANCEL -> reservationIds[request.rent()] == Result.NO_RESERVATION ? null
+                        : service.cancelReservation(reservationIds[request.rent()]);
+                case MODIFY -> reservationIds[request.rent()] == Result.NO_RESERVATION ? null
+                        : service.modifyReservation(reservationIds[request.rent()], request.days());
+            };
+            if (result != null && result.isSuccessful()) {
+                successful++;
+                if (request.kind() == Kind.RENT) {
+                    reservationIds[i] = result.getReservationId();
+                }
+            }
+        }
+        return successful;
+    }
+
+    enum Kind {
+        RENT,
+        CANCEL,
+        MODIFY
+    }
+
+    private record Request(Instant at, Kind kind, CarType type, LocalDateTime start, int days, int rent) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cancelling and changing a reservation by id with booking one, on the preloaded fleets of
+ * {@link BookingBenchmark}. {@code rentAndCancel} books a random slot and cancels it again, so the fleet
+ * does not fill up; {@code modify} alternates held two-day reservations between one and three days.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CancellationBenchmark {
+    private static final int FLEET_SIZE = 100;
+    private static final int RESERVATIONS_PER_CAR = 20;
+
+    @Param({"TREE_SET", "PRIMITIVE"})
+    public StorageType storage;
+
+    private RentService service;
+    private long[] reservationIds;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(BookingBenchmark.TYPE, FLEET_SIZE), storage);
+        reservationIds = new long[FLEET_SIZE * RESERVATIONS_PER_CAR];
+        int booked = 0;
+        for (int slot = 0; slot < RESERVATIONS_PER_CAR; slot++) {
+            LocalDateTime start = BookingBenchmark.HORIZON_START
+                    .plusDays((long) slot * BookingBenchmark.HORIZON_DAYS / RESERVATIONS_PER_CAR);
+            for (int car = 0; car < FLEET_SIZE; car++) {
+                reservationIds[booked++] = service.rentCar(BookingBenchmark.TYPE, start, 2).getReservationId();
+            }
+        }
+    }
+
+    @Benchmark
+    public Result rentAndCancel() {
+        Result booked = BookingBenchmark.randomBooking(service);
+        return booked.isSuccessful() ? service.cancelReservation(booked.getReservationId()) : booked;
+    }
+
+    @Benchmark
+    public Result modify() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return service.modifyReservation(reservationIds[random.nextInt(reservationIds.length)], 1 + 2 * random.nextInt(2));
+    }
+}
@@ -0,0 +1,58 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Reservation;
+import org.rental.util.CachedClock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading the current time the way the booking path does: looking the default zone up on every call as
+ * {@link LocalDateTime#now()} does, through a {@link Clock} held by the service, or through a {@link CachedClock}
+ * ticking every millisecond. {@code sameDayReservation} builds the 23:59 end of a same-day reservation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClockBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    private final Clock system = Clock.systemDefaultZone();
+    private CachedClock cached;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cached = new CachedClock(system, Duration.ofMillis(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cached.close();
+    }
+
+    @Benchmark
+    public LocalDateTime nowDefaultZone() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LocalDateTime nowHeldClock() {
+        return LocalDateTime.now(system);
+    }
+
+    @Benchmark
+    public LocalDateTime nowCachedClock() {
+        return LocalDateTime.now(cached);
+    }
+
+    @Benchmark
+    public Reservation sameDayReservation() {
+        return new Reservation(START, 0);
+    }
+}
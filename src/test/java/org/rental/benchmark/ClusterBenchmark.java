@@ -0,0 +1,50 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.cluster.ClusterRentService;
+import org.rental.dto.Result;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures booking throughput of a loopback cluster against its number of partitions, with the same fleet
+ * split over more partitions. The cluster is rebuilt every iteration so it never fills up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ClusterBenchmark {
+    private static final CarType[] TYPES = CarType.values();
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    private ClusterRentService cluster;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cluster = ClusterRentService.startLocal(Map.of(CarType.SEDAN, 300, CarType.SUV, 300, CarType.VAN, 300),
+                partitions, RentServiceConfig.defaults());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        cluster.close();
+    }
+
+    @Benchmark
+    public Result rentCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = BookingBenchmark.HORIZON_START.plusHours(random.nextInt(BookingBenchmark.HORIZON_DAYS * 24));
+        return cluster.rentCar(TYPES[random.nextInt(TYPES.length)], start, random.nextInt(3));
+    }
+}
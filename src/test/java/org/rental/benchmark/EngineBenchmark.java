@@ -0,0 +1,51 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.service.EngineMode;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the locking and the sharded single-writer engine on random bookings spread over all car types,
+ * with four client threads. The fleet is rebuilt every iteration so it never fills up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EngineBenchmark {
+    private static final CarType[] TYPES = CarType.values();
+
+    @Param({"LOCKING", "SHARDED"})
+    public EngineMode engine;
+
+    private RentService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(CarType.SEDAN, 300, CarType.SUV, 300, CarType.VAN, 300),
+                RentServiceConfig.builder().engine(engine).build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public Result rentCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = BookingBenchmark.HORIZON_START.plusHours(random.nextInt(BookingBenchmark.HORIZON_DAYS * 24));
+        return service.rentCar(TYPES[random.nextInt(TYPES.length)], start, random.nextInt(3));
+    }
+}
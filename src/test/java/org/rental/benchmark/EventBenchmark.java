@@ -0,0 +1,50 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rental.dto.Result;
+import org.rental.events.EventSubscription;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the event stream on the booking path: {@code rentAndCancel} of {@link CancellationBenchmark} with no
+ * stream and with a ring nobody reads, and {@code rentCancelAndPoll} draining the two events through a subscriber.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBenchmark {
+    private static final int FLEET_SIZE = 100;
+
+    @Param({"0", "65536"})
+    public int eventCapacity;
+
+    private RentService service;
+    private EventSubscription subscription;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(BookingBenchmark.TYPE, FLEET_SIZE),
+                RentServiceConfig.builder().eventCapacity(eventCapacity).build());
+        subscription = eventCapacity > 0 ? service.subscribe() : null;
+    }
+
+    @Benchmark
+    public Result rentAndCancel() {
+        Result booked = BookingBenchmark.randomBooking(service);
+        return booked.isSuccessful() ? service.cancelReservation(booked.getReservationId()) : booked;
+    }
+
+    @Benchmark
+    public int rentCancelAndPoll(Blackhole blackhole) {
+        blackhole.consume(rentAndCancel());
+        return subscription == null ? 0 : subscription.poll(16, blackhole::consume);
+    }
+}
@@ -0,0 +1,51 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.service.ReservationArchive;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Books one car back to back while simulated time moves forward, so its history grows with every invocation.
+ * With expiry enabled, finished reservations are dropped every {@link #EXPIRY_PERIOD} bookings and the cost
+ * of a booking stays flat instead of growing with the number of reservations the car ever had.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpiryBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 0, 0);
+    private static final int EXPIRY_PERIOD = 1024;
+
+    @Param({"false", "true"})
+    public boolean expire;
+
+    private RentService service;
+    private LocalDateTime now;
+    private long bookings;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(CarType.SEDAN, 1));
+        now = START;
+        bookings = 0;
+    }
+
+    @Benchmark
+    public Result rollingBooking() {
+        Result result = service.rentCar(CarType.SEDAN, now, 0);
+        now = now.plusDays(1);
+        if (expire && ++bookings % EXPIRY_PERIOD == 0) {
+            service.expireReservations(now.minusDays(7), ReservationArchive.DISCARD);
+        }
+        return result;
+    }
+}
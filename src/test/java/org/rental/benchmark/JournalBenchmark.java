@@ -0,0 +1,66 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.persistence.FsyncPolicy;
+import org.rental.persistence.ReservationJournal;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the booking throughput cost of journaling with each {@link FsyncPolicy} against no journal at all.
+ * Bookings never collide, so every call appends a record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JournalBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    @Param({"OFF", "NONE", "PERIODIC", "EVERY_COMMIT"})
+    public String journalMode;
+
+    private Path file;
+    private ReservationJournal journal;
+    private RentService service;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        RentServiceConfig.RentServiceConfigBuilder config = RentServiceConfig.builder();
+        if (!journalMode.equals("OFF")) {
+            file = Files.createTempFile("journal-benchmark", ".bin");
+            journal = new ReservationJournal(file, FsyncPolicy.valueOf(journalMode), Duration.ofMillis(10));
+            config.journal(journal);
+        }
+        service = new RentService(Map.of(CarType.SEDAN, 64), config.build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public Result rentCar() {
+        long slot = next.getAndIncrement();
+        return service.rentCar(CarType.SEDAN, START.plusDays(slot / 64 * 2), 0);
+    }
+}
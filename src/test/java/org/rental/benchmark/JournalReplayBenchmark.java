@@ -0,0 +1,85 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.persistence.FleetSnapshot;
+import org.rental.persistence.FsyncPolicy;
+import org.rental.persistence.JournalRecord;
+import org.rental.persistence.ReservationJournal;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+import org.rental.util.StorageType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cold start of {@link RentService} holding one-hour bookings spread over 1000 vans,
+ * either by replaying the full journal or by loading an equivalent snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalReplayBenchmark {
+    private static final int CARS = 1000;
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Param({"1000000", "10000000"})
+    public int records;
+
+    @Param({"TREE_SET", "PRIMITIVE"})
+    public StorageType storage;
+
+    private Path file;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        file = Files.createTempFile("journal-replay", ".bin");
+        List<List<JournalRecord>> reservations = new ArrayList<>(CARS);
+        for (int car = 0; car < CARS; car++) {
+            reservations.add(new ArrayList<>());
+        }
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.NONE, Duration.ofSeconds(1))) {
+            for (int i = 0; i < records; i++) {
+                LocalDateTime start = START.plusHours(2L * (i / CARS));
+                JournalRecord record = new JournalRecord(JournalRecord.Kind.RESERVED, CarType.VAN, i % CARS, i + 1L,
+                        start, start.plusMinutes(59));
+                journal.append(record);
+                reservations.get(i % CARS).add(record);
+            }
+        }
+        snapshot = Files.createTempFile("fleet", ".snapshot");
+        FleetSnapshot.write(snapshot, 0, records, Map.of(CarType.VAN, reservations), Map.of());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public RentService restoreFromSnapshot() {
+        return new RentService(Map.of(CarType.VAN, CARS),
+                RentServiceConfig.builder().storage(storage).snapshot(snapshot).build());
+    }
+
+    @Benchmark
+    public RentService replay() throws IOException {
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.NONE, Duration.ofSeconds(1))) {
+            return new RentService(Map.of(CarType.VAN, CARS),
+                    RentServiceConfig.builder().storage(storage).journal(journal).build());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.metrics.BookingMetrics;
+import org.rental.metrics.RecordingMetrics;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what recording booking metrics costs on random bookings, against the same bookings with metrics
+ * disabled. The fleet is rebuilt every iteration so it never fills up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MetricsBenchmark {
+    private static final CarType[] TYPES = CarType.values();
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private RentService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BookingMetrics metrics = enabled ? new RecordingMetrics() : BookingMetrics.DISABLED;
+        service = new RentService(Map.of(CarType.SEDAN, 300, CarType.SUV, 300, CarType.VAN, 300),
+                RentServiceConfig.builder().metrics(metrics).build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public Result rentCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = BookingBenchmark.HORIZON_START.plusHours(random.nextInt(BookingBenchmark.HORIZON_DAYS * 24));
+        return service.rentCar(TYPES[random.nextInt(TYPES.length)], start, random.nextInt(3));
+    }
+}
@@ -0,0 +1,74 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.BookingRequest;
+import org.rental.pricing.FleetOccupancy;
+import org.rental.pricing.QuoteEngine;
+import org.rental.pricing.RateCard;
+import org.rental.util.CarType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bulk quoting from the prefix-sum rate tables with pricing the same ranges day by day from the rate card.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteBenchmark {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2100, 1, 1);
+    private static final CarType[] TYPES = CarType.values();
+
+    @Param({"10000"})
+    public int requestCount;
+
+    private RateCard card;
+    private QuoteEngine engine;
+    private List<BookingRequest> requests;
+
+    @Setup
+    public void setUp() {
+        card = RateCard.builder()
+                .dailyRate(CarType.SEDAN, 4_000L).dailyRate(CarType.SUV, 6_000L).dailyRate(CarType.VAN, 9_000L)
+                .seasonalMultiplier(Month.JULY, 1.5).seasonalMultiplier(Month.AUGUST, 1.5)
+                .weekendMultiplier(1.25)
+                .lengthDiscount(7, 0.1).lengthDiscount(28, 0.25)
+                .build();
+        engine = new QuoteEngine(card, FIRST_DAY, 548);
+        Random random = new Random(42);
+        requests = new ArrayList<>(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            LocalDateTime start = FIRST_DAY.atTime(10, 0).plusDays(random.nextInt(500));
+            requests.add(new BookingRequest(TYPES[random.nextInt(TYPES.length)], start, 1 + random.nextInt(30)));
+        }
+    }
+
+    @Benchmark
+    public long[] prefixSums() {
+        return engine.quoteAll(requests, FleetOccupancy.NONE);
+    }
+
+    @Benchmark
+    public long[] dayByDay() {
+        long[] prices = new long[requests.size()];
+        for (int i = 0; i < prices.length; i++) {
+            BookingRequest request = requests.get(i);
+            LocalDate first = request.getStart().toLocalDate();
+            long price = 0;
+            for (int day = 0; day < request.getDays(); day++) {
+                price += card.dailyRate(request.getType(), first.plusDays(day));
+            }
+            prices[i] = price;
+        }
+        return prices;
+    }
+}
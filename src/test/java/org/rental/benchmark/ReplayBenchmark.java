@@ -0,0 +1,72 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.service.EngineMode;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+import org.rental.util.ManualClock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded day of {@value #REQUESTS} booking requests through a fresh {@link RentService} at accelerated
+ * time, reporting the time per request. The day is generated once, written to a recording and read back, so the
+ * run goes through the same path as replaying traffic captured elsewhere.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplayBenchmark {
+    private static final int REQUESTS = 200_000;
+    private static final int CARS_PER_TYPE = 500;
+
+    @Param({"LOCKING", "SHARDED"})
+    public EngineMode engine;
+
+    private BookingTraffic traffic;
+    private ManualClock clock;
+    private RentService service;
+
+    @Setup(Level.Trial)
+    public void record() throws IOException {
+        Path file = Files.createTempFile("booking-traffic", ".txt");
+        try {
+            BookingTraffic.generate(LocalDate.of(2100, 1, 1), REQUESTS, 42).write(file);
+            traffic = BookingTraffic.read(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        Map<CarType, Integer> carLimits = new EnumMap<>(CarType.class);
+        for (CarType type : CarType.values()) {
+            carLimits.put(type, CARS_PER_TYPE);
+        }
+        clock = new ManualClock(traffic.getStart(), ZoneOffset.UTC);
+        service = new RentService(carLimits, RentServiceConfig.builder().clock(clock).engine(engine).build());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int replayDay() {
+        return traffic.replay(service, clock);
+    }
+}
@@ -0,0 +1,49 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.analytics.UtilizationReport;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RentService#report} over a year in which every car holds {@value #RESERVATIONS_PER_CAR}
+ * evenly spaced four-day reservations. Reports run on the common fork-join pool, so the score depends on the
+ * number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ReportBenchmark {
+    private static final int RESERVATIONS_PER_CAR = 50;
+
+    @Param({"10000", "100000"})
+    public int cars;
+
+    private RentService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new RentService(Map.of(BookingBenchmark.TYPE, cars));
+        for (int slot = 0; slot < RESERVATIONS_PER_CAR; slot++) {
+            for (int car = 0; car < cars; car++) {
+                // staggered by car, so occupancy differs between hours
+                service.rentCar(BookingBenchmark.TYPE, BookingBenchmark.HORIZON_START
+                        .plusDays((long) slot * BookingBenchmark.HORIZON_DAYS / RESERVATIONS_PER_CAR)
+                        .plusMinutes(car % (24 * 60)), 4);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<CarType, UtilizationReport> yearReport() {
+        LocalDate first = BookingBenchmark.HORIZON_START.toLocalDate();
+        return service.report(first, first.plusDays(BookingBenchmark.HORIZON_DAYS - 1));
+    }
+}
@@ -0,0 +1,81 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Car;
+import org.rental.dto.Reservation;
+import org.rental.util.CarFactory;
+import org.rental.util.CarType;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-car conflict check of {@link Car#makeReservation} and {@link Reservation#compareTo}.
+ * The car holds one-hour reservations two hours apart, and every probe collides with one of them,
+ * so the car is not modified between invocations. {@code fillCar} books all those reservations, in random order,
+ * on a new car, and {@code overlapping} lists the reservations within a random ten-hour range.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationStoreBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Param({"100", "10000"})
+    public int reservationsPerCar;
+
+    @Param({"TREE_SET", "PRIMITIVE", "BITMAP", "INTERVAL_TREE"})
+    public StorageType storage;
+
+    private Car car;
+    private Reservation[] conflicting;
+    private Reservation[] shuffled;
+
+    @Setup
+    public void setUp() {
+        car = CarFactory.create(CarType.SEDAN, storage);
+        conflicting = new Reservation[reservationsPerCar];
+        for (int i = 0; i < reservationsPerCar; i++) {
+            LocalDateTime start = START.plusHours(2L * i);
+            car.makeReservation(new Reservation(start, start.plusHours(1)));
+            conflicting[i] = new Reservation(start.plusMinutes(30), start.plusMinutes(90));
+        }
+        shuffled = car.getReservations().toArray(new Reservation[0]);
+        Collections.shuffle(Arrays.asList(shuffled), new Random(42));
+    }
+
+    @Benchmark
+    public boolean makeReservationConflict() {
+        return car.makeReservation(conflicting[ThreadLocalRandom.current().nextInt(reservationsPerCar)]);
+    }
+
+    @Benchmark
+    public Car fillCar() {
+        Car filled = CarFactory.create(CarType.SEDAN, storage);
+        for (Reservation reservation : shuffled) {
+            filled.makeReservation(reservation);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public List<Reservation> overlapping() {
+        Reservation range = conflicting[ThreadLocalRandom.current().nextInt(reservationsPerCar)];
+        return car.getReservations(new Reservation(range.getStart(), range.getStart().plusHours(10)));
+    }
+
+    @Benchmark
+    public int compareTo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return conflicting[random.nextInt(reservationsPerCar)].compareTo(conflicting[random.nextInt(reservationsPerCar)]);
+    }
+}
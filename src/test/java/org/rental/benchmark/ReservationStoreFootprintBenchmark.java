@@ -0,0 +1,63 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Reservation;
+import org.rental.storage.ReservationStore;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap a reservation store retains per reservation, reported as the secondary
+ * {@code bytesPerReservation} result. Each invocation fills a new store with {@value #RESERVATIONS} one-hour
+ * reservations two hours apart and compares the used heap after collecting garbage before and after, so the
+ * figure includes the reservation objects a store keeps but not the garbage it leaves while growing.
+ * JMH sums such counters over the measured iterations, so only one is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(1)
+public class ReservationStoreFootprintBenchmark {
+    private static final int RESERVATIONS = 200_000;
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Param({"TREE_SET", "PRIMITIVE", "BITMAP", "INTERVAL_TREE"})
+    public StorageType storage;
+
+    private ReservationStore store;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long bytesPerReservation;
+    }
+
+    @Setup(Level.Invocation)
+    public void dropStore() {
+        store = null;
+    }
+
+    @Benchmark
+    public ReservationStore fill(Footprint footprint) {
+        long before = usedHeap();
+        store = storage.createStore();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            LocalDateTime start = START.plusHours(2L * i);
+            store.add(new Reservation(start, start.plusHours(1)));
+        }
+        footprint.bytesPerReservation = (usedHeap() - before) / RESERVATIONS;
+        return store;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,94 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.dto.SearchOption;
+import org.rental.dto.SearchRequest;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RentService#search} with what clients did before it: booking and cancelling again every
+ * shifted start and alternative type in turn. Sedans are preferred and SUVs acceptable; cars are booked for three
+ * days out of most four-day blocks of a year, so most requested slots are taken. A search asks for five options
+ * for a two-day rental within three days of a random start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int TOLERANCE_DAYS = 3;
+    private static final int OPTIONS = 5;
+    private static final int BLOCK_DAYS = 4;
+
+    @Param({"1000", "10000"})
+    public int fleetSize;
+
+    @Param({"0.8", "0.97"})
+    public double bookedShare;
+
+    private RentService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new RentService(Map.of(CarType.SEDAN, fleetSize, CarType.SUV, fleetSize / 10));
+        Random random = new Random(42);
+        for (int block = 0; block < BookingBenchmark.HORIZON_DAYS / BLOCK_DAYS; block++) {
+            LocalDateTime start = BookingBenchmark.HORIZON_START.plusDays((long) block * BLOCK_DAYS);
+            for (CarType type : List.of(CarType.SEDAN, CarType.SUV)) {
+                int cars = type == CarType.SEDAN ? fleetSize : fleetSize / 10;
+                for (int car = 0; car < cars; car++) {
+                    if (random.nextDouble() < bookedShare) {
+                        service.rentCar(type, start, BLOCK_DAYS - 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SearchOption> search() {
+        return service.search(SearchRequest.builder()
+                .type(CarType.SEDAN).start(randomStart()).days(2)
+                .toleranceDays(TOLERANCE_DAYS).alternative(CarType.SUV).limit(OPTIONS)
+                .build());
+    }
+
+    @Benchmark
+    public List<Result> trialBookings() {
+        LocalDateTime start = randomStart();
+        List<Result> options = new ArrayList<>();
+        for (int distance = 0; distance <= TOLERANCE_DAYS && options.size() < OPTIONS; distance++) {
+            for (CarType type : List.of(CarType.SEDAN, CarType.SUV)) {
+                for (int shift : distance == 0 ? new int[]{0} : new int[]{-distance, distance}) {
+                    // a trial booking takes the car it found, so each one only yields a single option
+                    while (options.size() < OPTIONS) {
+                        Result booked = service.rentCar(type, start.plusDays(shift), 2);
+                        if (!booked.isSuccessful()) {
+                            break;
+                        }
+                        options.add(booked);
+                    }
+                }
+            }
+        }
+        options.forEach(booked -> service.cancelReservation(booked.getReservationId()));
+        return options;
+    }
+
+    private static LocalDateTime randomStart() {
+        int hour = ThreadLocalRandom.current().nextInt((BookingBenchmark.HORIZON_DAYS - 2 * TOLERANCE_DAYS) * 24);
+        return BookingBenchmark.HORIZON_START.plusDays(TOLERANCE_DAYS).plusHours(hour);
+    }
+}
@@ -0,0 +1,70 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rental.service.RentService;
+import org.rental.util.CarType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long creating a {@link RentService} for an idle fleet takes and how much heap the fleet keeps,
+ * with the cars split evenly between the types. {@code idleHeap} reports the retained bytes as the
+ * {@code retainedBytes} counter; its time includes the collections needed to measure them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"10000", "100000", "1000000"})
+    public int cars;
+
+    private Map<CarType, Integer> carLimits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        carLimits = new EnumMap<>(CarType.class);
+        CarType[] types = CarType.values();
+        for (int i = 0; i < types.length; i++) {
+            carLimits.put(types[i], cars / types.length + (i < cars % types.length ? 1 : 0));
+        }
+    }
+
+    @Benchmark
+    public RentService create() {
+        try (RentService service = new RentService(carLimits)) {
+            return service;
+        }
+    }
+
+    @Benchmark
+    public void idleHeap(HeapCounters counters, Blackhole blackhole) {
+        long before = usedHeap();
+        try (RentService service = new RentService(carLimits)) {
+            counters.retainedBytes = usedHeap() - before;
+            blackhole.consume(service);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+        public long retainedBytes;
+    }
+}
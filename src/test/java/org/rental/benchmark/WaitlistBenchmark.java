@@ -0,0 +1,60 @@
+package org.rental.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cancellation that hands the freed slot to a waiter, against the number of pending waiters.
+ * A single car is booked for one day every other day; the waiters are spread evenly over those days, and every
+ * operation cancels a random day, which promotes the longest waiting waiter for it, and queues a new waiter so
+ * the waitlist keeps its size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitlistBenchmark {
+    private static final int SLOTS = 1_000;
+
+    @Param({"1000", "100000"})
+    public int waiters;
+
+    private RentService service;
+    private long[] reservationIds;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new RentService(Map.of(BookingBenchmark.TYPE, 1));
+        reservationIds = new long[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            reservationIds[slot] = service.rentCar(BookingBenchmark.TYPE, startOf(slot), 1).getReservationId();
+        }
+        for (int waiter = 0; waiter < waiters; waiter++) {
+            join(waiter % SLOTS);
+        }
+    }
+
+    @Benchmark
+    public Result cancelAndPromote() {
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        Result cancelled = service.cancelReservation(reservationIds[slot]);
+        join(slot);
+        return cancelled;
+    }
+
+    private void join(int slot) {
+        service.joinWaitlist(BookingBenchmark.TYPE, startOf(slot), 1, result -> reservationIds[slot] = result.getReservationId());
+    }
+
+    private static LocalDateTime startOf(int slot) {
+        return BookingBenchmark.HORIZON_START.plusDays(2L * slot).plusHours(12);
+    }
+}
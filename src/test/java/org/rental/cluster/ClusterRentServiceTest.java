@@ -0,0 +1,173 @@
+package org.rental.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rental.dto.Result;
+import org.rental.persistence.FsyncPolicy;
+import org.rental.persistence.ReservationJournal;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rental.util.CarType.*;
+
+class ClusterRentServiceTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(10);
+
+    private ClusterRentService tested;
+    private final List<ReservationJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tested != null) {
+            tested.close();
+        }
+        for (ReservationJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void partitionLayout_anyFleet_shouldPlaceEveryCarOnce() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 100, VAN, 3);
+
+        //when
+        PartitionLayout layout = PartitionLayout.of(carLimits, 4);
+        tested = ClusterRentService.startLocal(carLimits, 4, RentServiceConfig.defaults());
+
+        //then
+        int suvs = 0;
+        int vans = 0;
+        for (int partition = 0; partition < 4; partition++) {
+            suvs += layout.carLimitsOf(partition).getOrDefault(SUV, 0);
+            vans += layout.carLimitsOf(partition).getOrDefault(VAN, 0);
+        }
+        assertThat(suvs).isEqualTo(100);
+        assertThat(vans).isEqualTo(3);
+        assertThat(layout.partitionsOf(SUV)).containsExactly(0, 1, 2, 3);
+        assertThat(layout.partitionsOf(SEDAN)).isEmpty();
+    }
+
+    @Test
+    void rentCar_ownerPartitionFull_shouldFallBackToOtherPartitions() {
+        //given
+        tested = ClusterRentService.startLocal(Map.of(SUV, 20), 4, RentServiceConfig.defaults());
+
+        //when
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            results.add(tested.rentCar(SUV, START, 2));
+        }
+
+        //then
+        assertThat(results.subList(0, 20)).allMatch(Result::isSuccessful);
+        assertFalse(results.get(20).isSuccessful());
+        assertThat(results.subList(0, 20)).extracting(Result::getReservationId).doesNotHaveDuplicates();
+        assertThat(results.subList(0, 20)).extracting(result -> result.getReservationId() % 4)
+                .contains(0L, 1L, 2L, 3L);
+        assertThat(tested.countFreeCars(SUV, START, START.plusDays(1))).isZero();
+    }
+
+    @Test
+    void cancelReservation_clusterId_shouldFreeCarOnItsPartition() {
+        //given
+        tested = ClusterRentService.startLocal(Map.of(VAN, 6), 3, RentServiceConfig.defaults());
+        long[] ids = new long[6];
+        for (int i = 0; i < 6; i++) {
+            ids[i] = tested.rentCar(VAN, START, 1).getReservationId();
+        }
+
+        //when
+        Result cancelled = tested.cancelReservation(ids[4]);
+        Result modified = tested.modifyReservation(ids[1], 3);
+
+        //then
+        assertTrue(cancelled.isSuccessful());
+        assertThat(cancelled.getReservationId()).isEqualTo(ids[4]);
+        assertTrue(modified.isSuccessful());
+        assertFalse(tested.cancelReservation(ids[4]).isSuccessful());
+        assertThat(tested.countFreeCars(VAN, START, START.plusHours(1))).isEqualTo(1);
+        assertTrue(tested.rentCar(VAN, START, 1).isSuccessful());
+        assertThat(Arrays.stream(ids)).allMatch(id -> id > 0);
+    }
+
+    @Test
+    void rentCar_typeWithoutCars_shouldNotSucceed() {
+        //given
+        tested = ClusterRentService.startLocal(Map.of(VAN, 2), 2, RentServiceConfig.defaults());
+
+        //when
+        Result result = tested.rentCar(SEDAN, START, 1);
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertFalse(tested.cancelReservation(Result.NO_RESERVATION).isSuccessful());
+    }
+
+    @Test
+    void startLocal_sharedJournal_shouldThrowException(@TempDir Path directory) throws IOException {
+        //given
+        try (ReservationJournal journal = new ReservationJournal(directory.resolve("journal.bin"), FsyncPolicy.NONE,
+                Duration.ofSeconds(1))) {
+            RentServiceConfig config = RentServiceConfig.builder().journal(journal).build();
+
+            //when
+            //then
+            assertThrows(IllegalArgumentException.class, () -> ClusterRentService.startLocal(Map.of(VAN, 2), 2, config));
+        }
+    }
+
+    @Test
+    void startLocal_journalPerPartition_shouldRestoreEveryPartition(@TempDir Path directory) throws IOException {
+        //given
+        IntFunction<RentServiceConfig> configOf = partition -> RentServiceConfig.builder()
+                .journal(open(directory.resolve("partition-" + partition + ".bin")))
+                .build();
+        tested = ClusterRentService.startLocal(Map.of(VAN, 4), 2, configOf);
+        long[] ids = new long[4];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tested.rentCar(VAN, START, 1).getReservationId();
+        }
+        tested.close();
+        for (ReservationJournal journal : journals) {
+            journal.close();
+        }
+        journals.clear();
+
+        //when
+        tested = ClusterRentService.startLocal(Map.of(VAN, 4), 2, configOf);
+        int freeAfterRestart = tested.countFreeCars(VAN, START, START.plusHours(1));
+        Result cancelled = tested.cancelReservation(ids[3]);
+
+        //then
+        assertThat(freeAfterRestart).isZero();
+        assertTrue(cancelled.isSuccessful());
+        assertThat(tested.countFreeCars(VAN, START, START.plusHours(1))).isEqualTo(1);
+    }
+
+    private ReservationJournal open(Path file) {
+        try {
+            ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.NONE, Duration.ofSeconds(1));
+            journals.add(journal);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
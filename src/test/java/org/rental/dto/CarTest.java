@@ -2,8 +2,12 @@ package org.rental.dto;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.rental.storage.PrimitiveReservationStore;
+import org.rental.storage.ReservationStore;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -169,5 +173,60 @@ class CarTest {
         assertThat(tested.getReservations()).containsExactly(oldReservation1, oldReservation2, oldReservation3);
     }
 
+    @Test
+    void cancelReservation_onlyOverlappingReservation_shouldKeepStoredReservation() {
+        //given
+        Reservation stored = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18);
+        tested.makeReservation(stored);
+
+        //when
+        boolean result = tested.cancelReservation(new Reservation(LocalDateTime.of(2025, 2, 5, 12, 0), 1));
+
+        //then
+        assertFalse(result);
+        assertThat(tested.getReservations()).containsExactly(stored);
+    }
+
+    @Test
+    void cancelReservation_storedReservation_shouldRemoveIt() {
+        //given
+        Reservation stored = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18);
+        tested.makeReservation(stored);
+
+        //when
+        boolean result = tested.cancelReservation(new Reservation(stored.getStart(), stored.getEnd()));
+
+        //then
+        assertTrue(result);
+        assertThat(tested.getReservations()).isEmpty();
+    }
+
+    @Test
+    void makeReservation_lazyCar_shouldCreateStoreOnFirstReservation() {
+        //given
+        List<ReservationStore> created = new ArrayList<>();
+        tested = new Sedan(7, () -> {
+            ReservationStore store = new PrimitiveReservationStore();
+            created.add(store);
+            return store;
+        });
+        Reservation reservation = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1);
+        boolean freeBefore = tested.isFree(reservation);
+        boolean cancelledBefore = tested.cancelReservation(reservation);
+
+        //when
+        boolean result = tested.makeReservation(reservation);
+        tested.makeReservation(new Reservation(LocalDateTime.of(2025, 3, 2, 12, 0), 1));
+
+        //then
+        assertTrue(freeBefore);
+        assertFalse(cancelledBefore);
+        assertTrue(result);
+        assertThat(created).hasSize(1);
+        assertThat(tested.getId()).isEqualTo(7);
+        assertThat(tested.getReservations()).hasSize(2).first()
+                .satisfies(first -> assertThat(first.getStart()).isEqualTo(reservation.getStart()));
+    }
+
     private static class TestCar extends Car {}
 }
\ No newline at end of file
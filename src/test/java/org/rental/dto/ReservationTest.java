@@ -61,6 +61,20 @@ class ReservationTest {
         assertThat(actual.getStart()).isEqualTo(start);
     }
 
+    @Test
+    void newReservation_endBeforeStart_shouldThrowIllegalArgumentException() {
+        //given
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 2, 1, 12, 0);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new Reservation(start, end));
+
+        //then
+        String expectedMessage = "Reservation cannot end before it starts";
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
     @Test
     void isBefore_isBefore_shouldReturnTrue() {
         //given
@@ -151,6 +165,38 @@ class ReservationTest {
         assertFalse(result);
     }
 
+    @Test
+    void compareTo_chainOfOverlappingReservations_shouldOrderByStartThenEnd() {
+        //given
+        Reservation first = new Reservation(LocalDateTime.of(2025, 1, 1, 12, 0), 2);
+        Reservation second = new Reservation(LocalDateTime.of(2025, 1, 2, 12, 0), 2);
+        Reservation third = new Reservation(LocalDateTime.of(2025, 1, 2, 12, 0), 3);
+
+        //when
+        //then
+        assertTrue(first.overlaps(second));
+        assertTrue(second.overlaps(third));
+        assertThat(first.compareTo(second)).isNegative();
+        assertThat(second.compareTo(third)).isNegative();
+        assertThat(first.compareTo(third)).isNegative();
+        assertThat(third.compareTo(first)).isPositive();
+        assertThat(second.compareTo(new Reservation(second.getStart(), second.getEnd()))).isZero();
+    }
+
+    @Test
+    void overlaps_touchingEnds_shouldReturnTrue() {
+        //given
+        Reservation currentReservation = getCurrentReservation();
+        Reservation newReservation = new Reservation(currentReservation.getEnd(), 1);
+
+        //when
+        boolean result = currentReservation.overlaps(newReservation);
+
+        //then
+        assertTrue(result);
+        assertFalse(currentReservation.overlaps(new Reservation(currentReservation.getEnd().plusNanos(1), 1)));
+    }
+
     private Reservation getCurrentReservation() {
         LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
         return new Reservation(start, 31);
@@ -0,0 +1,177 @@
+package org.rental.events;
+
+import org.junit.jupiter.api.Test;
+import org.rental.persistence.JournalRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rental.util.CarType.*;
+
+class EventRingTest {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 12, 0);
+
+    @Test
+    void poll_twoSubscribers_shouldDeliverInBatchesWithOwnCursors() {
+        //given
+        EventRing tested = new EventRing(16);
+        EventSubscription early = tested.subscribe();
+        publish(tested, 5);
+        EventSubscription late = tested.subscribe();
+        publish(tested, 2);
+        List<BookingEvent> earlyEvents = new ArrayList<>();
+        List<BookingEvent> lateEvents = new ArrayList<>();
+
+        //when
+        int firstBatch = early.poll(4, earlyEvents::add);
+        int secondBatch = early.poll(100, earlyEvents::add);
+        late.poll(100, lateEvents::add);
+
+        //then
+        assertThat(firstBatch).isEqualTo(4);
+        assertThat(secondBatch).isEqualTo(3);
+        assertThat(earlyEvents).extracting(BookingEvent::getSequence).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(lateEvents).extracting(BookingEvent::getSequence).containsExactly(5L, 6L);
+        assertThat(early.getLag()).isZero();
+        assertThat(early.getMissed()).isZero();
+    }
+
+    @Test
+    void poll_subscriberOverrun_shouldSkipOverwrittenEventsAndReportThem() {
+        //given
+        EventRing tested = new EventRing(8);
+        EventSubscription slow = tested.subscribe();
+        publish(tested, 20);
+        List<BookingEvent> events = new ArrayList<>();
+
+        //when
+        long lag = slow.getLag();
+        slow.poll(100, events::add);
+
+        //then
+        assertThat(lag).isEqualTo(20);
+        assertThat(slow.getMissed()).isEqualTo(12);
+        assertThat(events).extracting(BookingEvent::getSequence).containsExactly(12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+    }
+
+    @Test
+    void subscribe_fromSequence_shouldReplayRetainedEvents() {
+        //given
+        EventRing tested = new EventRing(8);
+        publish(tested, 6);
+        List<BookingEvent> events = new ArrayList<>();
+
+        //when
+        tested.subscribe(3).poll(100, events::add);
+
+        //then
+        assertThat(events).extracting(event -> event.getChange().getReservation()).containsExactly(4L, 5L, 6L);
+    }
+
+    @Test
+    void poll_concurrentProducers_shouldDeliverEveryEventOnceInSequenceOrder() throws InterruptedException {
+        //given
+        int producers = 4;
+        int eventsPerProducer = 50_000;
+        EventRing tested = new EventRing(1 << 20);
+        EventSubscription subscription = tested.subscribe();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Long> sequences = new ArrayList<>();
+
+        //when
+        for (int producer = 0; producer < producers; producer++) {
+            executor.execute(() -> publish(tested, eventsPerProducer));
+        }
+        while (sequences.size() < producers * eventsPerProducer) {
+            subscription.poll(1024, event -> sequences.add(event.getSequence()));
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscription.getMissed()).isZero();
+        for (int i = 0; i < sequences.size(); i++) {
+            assertThat(sequences.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void publish_delayedProducerAfterWrap_shouldNotOverwriteNewerEvent() {
+        //given
+        EventRing tested = new EventRing(4);
+        EventSubscription subscription = tested.subscribe();
+        long delayed = tested.claim();
+        publish(tested, 4);
+        List<BookingEvent> events = new ArrayList<>();
+
+        //when
+        tested.publish(delayed, new JournalRecord(JournalRecord.Kind.CANCELLED, SUV, 0, 99, START, START));
+        subscription.poll(100, events::add);
+
+        //then
+        assertThat(events).extracting(BookingEvent::getSequence).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(subscription.getMissed()).isEqualTo(1);
+    }
+
+    @Test
+    void poll_abandonedSequence_shouldSkipItAndDeliverLaterEvents() {
+        //given
+        EventRing tested = new EventRing(8);
+        EventSubscription subscription = tested.subscribe();
+        long abandoned = tested.claim();
+        publish(tested, 2);
+        List<BookingEvent> events = new ArrayList<>();
+        int beforeAbandon = subscription.poll(100, events::add);
+
+        //when
+        tested.abandon(abandoned);
+        int afterAbandon = subscription.poll(100, events::add);
+
+        //then
+        assertThat(beforeAbandon).isZero();
+        assertThat(afterAbandon).isEqualTo(2);
+        assertThat(events).extracting(BookingEvent::getSequence).containsExactly(1L, 2L);
+        assertThat(subscription.getLag()).isZero();
+        assertThat(subscription.getMissed()).isZero();
+    }
+
+    @Test
+    void poll_concurrentProducersWrappingRing_shouldAccountForEveryEvent() throws InterruptedException {
+        //given
+        int producers = 4;
+        int eventsPerProducer = 50_000;
+        EventRing tested = new EventRing(64);
+        EventSubscription subscription = tested.subscribe();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Long> sequences = new ArrayList<>();
+
+        //when
+        for (int producer = 0; producer < producers; producer++) {
+            executor.execute(() -> publish(tested, eventsPerProducer));
+        }
+        executor.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (subscription.getPosition() < producers * eventsPerProducer && System.nanoTime() < deadline) {
+            if (subscription.poll(16, event -> sequences.add(event.getSequence())) == 0) {
+                Thread.yield();
+            }
+        }
+
+        //then
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscription.getPosition()).isEqualTo(producers * eventsPerProducer);
+        assertThat(sequences.size() + subscription.getMissed()).isEqualTo(producers * eventsPerProducer);
+        assertThat(sequences).isSorted().doesNotHaveDuplicates();
+    }
+
+    private static void publish(EventRing ring, int count) {
+        for (int i = 1; i <= count; i++) {
+            ring.publish(new JournalRecord(JournalRecord.Kind.RESERVED, SUV, 0, i, START, START.plusDays(1)));
+        }
+    }
+}
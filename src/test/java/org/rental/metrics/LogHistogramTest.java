@@ -0,0 +1,54 @@
+package org.rental.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE})
+    void bucketOf_anyValue_shouldFallIntoBucketWithinSixPercent(long value) {
+        //when
+        int bucket = LogHistogram.bucketOf(value);
+
+        //then
+        assertThat(bucket).isBetween(0, LogHistogram.BUCKETS - 1);
+        assertThat(LogHistogram.highestValueIn(bucket)).isGreaterThanOrEqualTo(value);
+        assertThat((double) LogHistogram.highestValueIn(bucket) - value).isLessThanOrEqualTo(value / 16.0);
+    }
+
+    @Test
+    void valueAtPercentile_uniformValues_shouldApproximatePercentiles() {
+        //given
+        LogHistogram tested = new LogHistogram();
+        for (int value = 1; value <= 10_000; value++) {
+            tested.record(value);
+        }
+
+        //when
+        HistogramSnapshot actual = tested.snapshot();
+
+        //then
+        assertThat(actual.getCount()).isEqualTo(10_000);
+        assertThat(actual.getMax()).isEqualTo(10_000);
+        assertThat((double) actual.valueAtPercentile(50)).isCloseTo(5_000, within(5_000 / 16.0));
+        assertThat((double) actual.valueAtPercentile(99)).isCloseTo(9_900, within(9_900 / 16.0));
+        assertThat(actual.valueAtPercentile(100)).isEqualTo(10_000);
+        assertThat(actual.getMean()).isCloseTo(5_000, within(5_000 / 16.0));
+    }
+
+    @Test
+    void snapshot_nothingRecorded_shouldBeEmpty() {
+        //when
+        HistogramSnapshot actual = new LogHistogram().snapshot();
+
+        //then
+        assertThat(actual.getCount()).isZero();
+        assertThat(actual.valueAtPercentile(99)).isZero();
+        assertThat(actual.getMean()).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package org.rental.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsReporterTest {
+
+    @Test
+    void reporter_sinkFailedOnce_shouldKeepExporting() throws InterruptedException {
+        //given
+        RecordingMetrics metrics = new RecordingMetrics();
+        AtomicInteger exports = new AtomicInteger();
+        CountDownLatch exportedAfterFailure = new CountDownLatch(1);
+
+        //when
+        try (MetricsReporter ignored = new MetricsReporter(metrics, snapshot -> {
+            if (exports.getAndIncrement() == 0) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            exportedAfterFailure.countDown();
+        }, Duration.ofMillis(10))) {
+
+            //then
+            assertTrue(exportedAfterFailure.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
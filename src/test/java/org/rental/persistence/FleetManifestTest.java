@@ -0,0 +1,45 @@
+package org.rental.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.rental.util.CarType.*;
+
+class FleetManifestTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_listedCars_shouldCountCarsPerType() throws IOException {
+        //given
+        Path file = directory.resolve("fleet.txt");
+        Files.write(file, List.of("SUV", "VAN", "", " SUV ", "SUV"));
+
+        //when
+        Map<CarType, Integer> result = FleetManifest.read(file);
+
+        //then
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(SUV, 3, VAN, 1));
+    }
+
+    @Test
+    void read_unknownType_shouldThrowException() throws IOException {
+        //given
+        Path file = directory.resolve("fleet.txt");
+        Files.write(file, List.of("SUV", "TRUCK"));
+
+        //when
+        //then
+        assertThatThrownBy(() -> FleetManifest.read(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
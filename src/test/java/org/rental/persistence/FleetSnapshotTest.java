@@ -0,0 +1,185 @@
+package org.rental.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rental.dto.Reservation;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.rental.util.CarType.*;
+
+class FleetSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_writtenSnapshot_shouldReturnEveryReservationAndSequence() throws IOException {
+        //given
+        Path file = directory.resolve("fleet.snapshot");
+        JournalRecord first = record(SUV, 0, 7, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0, 30, 1), 2));
+        JournalRecord second = record(SUV, 0, 3, new Reservation(LocalDateTime.of(2025, 3, 2, 12, 0), 0));
+        JournalRecord third = record(VAN, 2, 11, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 5));
+        FleetSnapshot.write(file, 42, 17, Map.of(
+                SUV, List.of(List.of(first, second), List.of()),
+                VAN, List.of(List.of(), List.of(), List.of(third))), Map.of(VAN, BitSet.valueOf(new long[]{0b10})));
+
+        //when
+        List<JournalRecord> actual = new ArrayList<>();
+        FleetSnapshot.Position position = FleetSnapshot.read(file, actual::add);
+
+        //then
+        assertThat(position.journalSequence()).isEqualTo(42);
+        assertThat(position.lastReservationId()).isEqualTo(17);
+        assertThat(actual)
+                .filteredOn(record -> record.getKind() != JournalRecord.Kind.RESERVED)
+                .extracting(JournalRecord::getKind, JournalRecord::getType, JournalRecord::getCar)
+                .containsExactlyInAnyOrder(
+                        tuple(JournalRecord.Kind.CAR_ADDED, SUV, 1),
+                        tuple(JournalRecord.Kind.CAR_ADDED, VAN, 2),
+                        tuple(JournalRecord.Kind.CAR_RETIRED, VAN, 1));
+        assertThat(actual)
+                .filteredOn(record -> record.getKind() == JournalRecord.Kind.RESERVED)
+                .extracting(JournalRecord::getType, JournalRecord::getCar, JournalRecord::getReservation,
+                        JournalRecord::getStart, JournalRecord::getEnd)
+                .containsExactlyInAnyOrder(
+                        tuple(SUV, 0, 7L, first.getStart(), first.getEnd()),
+                        tuple(SUV, 0, 3L, second.getStart(), second.getEnd()),
+                        tuple(VAN, 2, 11L, third.getStart(), third.getEnd()));
+    }
+
+    @Test
+    void rentService_restartedFromSnapshotAndJournalTail_shouldRestoreAllReservations() throws IOException {
+        //given
+        Path journalFile = directory.resolve("journal.bin");
+        Path snapshotFile = directory.resolve("fleet.snapshot");
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 2);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.EVERY_COMMIT, Duration.ofMillis(10))) {
+            RentService service = new RentService(carLimits, config(journal, snapshotFile));
+            service.rentCar(SEDAN, start, 1);
+            service.rentCar(SEDAN, start.plusDays(5), 1);
+            service.snapshot();
+            service.rentCar(SEDAN, start, 1);
+        }
+
+        //when
+        RentService restarted;
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.EVERY_COMMIT, Duration.ofMillis(10))) {
+            restarted = new RentService(carLimits, config(journal, snapshotFile));
+        }
+
+        //then
+        assertThat(Files.size(journalFile)).isEqualTo(ReservationJournal.HEADER_SIZE + ReservationJournal.RECORD_SIZE);
+        assertThat(restarted.getFleet().get(SEDAN).get(0).getReservations()).hasSize(2);
+        assertThat(restarted.getFleet().get(SEDAN).get(1).getReservations()).hasSize(1);
+    }
+
+    @Test
+    void rentService_restartedAfterHighestIdCancelledAndSnapshot_shouldNotHandOutIdAgain() throws IOException {
+        //given
+        Path journalFile = directory.resolve("journal.bin");
+        Path snapshotFile = directory.resolve("fleet.snapshot");
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        long cancelledId;
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.EVERY_COMMIT, Duration.ofMillis(10))) {
+            RentService service = new RentService(carLimits, config(journal, snapshotFile));
+            service.rentCar(SEDAN, start, 1);
+            cancelledId = service.rentCar(SEDAN, start.plusDays(5), 1).getReservationId();
+            service.cancelReservation(cancelledId);
+            service.snapshot();
+        }
+
+        //when
+        long nextId;
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.EVERY_COMMIT, Duration.ofMillis(10))) {
+            RentService restarted = new RentService(carLimits, config(journal, snapshotFile));
+            nextId = restarted.rentCar(SEDAN, start.plusDays(5), 1).getReservationId();
+        }
+
+        //then
+        assertThat(nextId).isEqualTo(cancelledId + 1);
+    }
+
+    @Test
+    void rentService_snapshotBetweenJournalingAndAddingCar_shouldRestoreCarAndItsBooking() throws Exception {
+        //given
+        Path journalFile = directory.resolve("journal.bin");
+        Path snapshotFile = directory.resolve("fleet.snapshot");
+        Map<CarType, Integer> carLimits = Map.of(VAN, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<Thread> snapshots = new ArrayList<>();
+        AtomicReference<RentService> service = new AtomicReference<>();
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.NONE, Duration.ofMillis(10)) {
+            @Override
+            public long enqueue(JournalRecord record) {
+                long sequence = super.enqueue(record);
+                if (record.getKind() == JournalRecord.Kind.CAR_ADDED) {
+                    // a snapshot racing the car that was just journaled but is not in the fleet yet
+                    Thread snapshot = new Thread(() -> {
+                        try {
+                            service.get().snapshot();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    snapshots.add(snapshot);
+                    snapshot.start();
+                    try {
+                        snapshot.join(500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return sequence;
+            }
+        }) {
+            service.set(new RentService(carLimits, config(journal, snapshotFile)));
+            service.get().rentCar(VAN, start, 1);
+            service.get().addCars(VAN, 1);
+            service.get().rentCar(VAN, start, 1);
+            for (Thread snapshot : snapshots) {
+                snapshot.join();
+            }
+        }
+
+        //when
+        RentService restarted;
+        try (ReservationJournal journal = new ReservationJournal(journalFile, FsyncPolicy.NONE, Duration.ofMillis(10))) {
+            restarted = new RentService(carLimits, config(journal, snapshotFile));
+        }
+
+        //then
+        assertThat(snapshots).hasSize(1);
+        assertThat(restarted.getFleet().get(VAN)).hasSize(2)
+                .allSatisfy(car -> assertThat(car.getReservations()).hasSize(1));
+    }
+
+    private static JournalRecord record(CarType type, int car, long reservationId, Reservation reservation) {
+        return new JournalRecord(JournalRecord.Kind.RESERVED, type, car, reservationId,
+                reservation.getStart(), reservation.getEnd());
+    }
+
+    private static RentServiceConfig config(ReservationJournal journal, Path snapshotFile) {
+        return RentServiceConfig.builder()
+                .journal(journal)
+                .snapshot(snapshotFile)
+                .build();
+    }
+}
@@ -0,0 +1,293 @@
+package org.rental.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.rental.dto.Car;
+import org.rental.dto.Result;
+import org.rental.service.RentService;
+import org.rental.service.RentServiceConfig;
+import org.rental.util.CarType;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rental.util.CarType.*;
+
+class ReservationJournalTest {
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(10);
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(FsyncPolicy.class)
+    void replay_afterReopen_shouldReturnAppendedRecordsInOrder(FsyncPolicy policy) throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        JournalRecord first = record(SUV, 0, LocalDateTime.of(2025, 2, 2, 12, 0, 15, 500));
+        JournalRecord second = record(VAN, 3, LocalDateTime.of(2025, 3, 2, 12, 0));
+        try (ReservationJournal journal = new ReservationJournal(file, policy, FLUSH_INTERVAL)) {
+            journal.append(first);
+            journal.append(second);
+        }
+
+        //when
+        List<JournalRecord> actual = new ArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, policy, FLUSH_INTERVAL)) {
+            journal.replay(actual::add);
+        }
+
+        //then
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator().containsExactly(first, second);
+    }
+
+    @Test
+    void replay_tornLastRecord_shouldDropItAndKeepAppending() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        JournalRecord first = record(SUV, 0, LocalDateTime.of(2025, 2, 2, 12, 0));
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            journal.append(first);
+            journal.append(record(SUV, 1, LocalDateTime.of(2025, 2, 2, 12, 0)));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(ReservationJournal.HEADER_SIZE + ReservationJournal.RECORD_SIZE + 10);
+        }
+        JournalRecord third = record(SEDAN, 2, LocalDateTime.of(2025, 4, 2, 12, 0));
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            journal.append(third);
+        }
+
+        //when
+        List<JournalRecord> actual = new ArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            journal.replay(actual::add);
+        }
+
+        //then
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator().containsExactly(first, third);
+        assertThat(Files.size(file)).isEqualTo(ReservationJournal.HEADER_SIZE + 2L * ReservationJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void compact_recordsBeforeSequence_shouldBeDroppedAndNumberingKept() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        JournalRecord kept = record(VAN, 2, LocalDateTime.of(2025, 4, 2, 12, 0));
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.PERIODIC, FLUSH_INTERVAL)) {
+            journal.append(record(SUV, 0, LocalDateTime.of(2025, 2, 2, 12, 0)));
+            journal.append(record(SUV, 1, LocalDateTime.of(2025, 3, 2, 12, 0)));
+            journal.append(kept);
+
+            //when
+            journal.compact(2);
+        }
+
+        //then
+        List<JournalRecord> actual = new ArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.PERIODIC, FLUSH_INTERVAL)) {
+            journal.replay(actual::add);
+            assertThat(journal.nextSequence()).isEqualTo(3);
+        }
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator().containsExactly(kept);
+        assertThat(Files.size(file)).isEqualTo(ReservationJournal.HEADER_SIZE + ReservationJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void append_concurrentCommits_shouldPersistEveryRecord() throws Exception {
+        //given
+        Path file = directory.resolve("journal.bin");
+        int threads = 8;
+        int recordsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //when
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            for (int t = 0; t < threads; t++) {
+                int car = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        journal.append(record(SEDAN, car, LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(i)));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        //then
+        List<JournalRecord> actual = new ArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            journal.replay(actual::add);
+        }
+        assertThat(actual).hasSize(threads * recordsPerThread);
+    }
+
+    @Test
+    void rentService_restartedWithJournal_shouldRestoreReservations() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        Map<CarType, Integer> carLimits = Map.of(SUV, 2, VAN, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            RentService service = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+            service.rentCar(SUV, start, 3);
+            service.rentCar(SUV, start, 3);
+            service.rentCar(VAN, start, 1);
+        }
+
+        //when
+        RentService restarted;
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            restarted = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+        }
+
+        //then
+        assertThat(restarted.getFleet().get(SUV)).allSatisfy(car -> assertThat(car.getReservations()).hasSize(1));
+        Car van = restarted.getFleet().get(VAN).get(0);
+        assertThat(van.getReservations()).singleElement()
+                .satisfies(reservation -> assertThat(reservation.getStart()).isEqualTo(start));
+        assertThat(restarted.rentCar(SUV, start, 1).isSuccessful()).isFalse();
+    }
+
+    @Test
+    void rentService_restartedAfterChanges_shouldRestoreLatestStateAndKeepIds() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        long modifiedId;
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            RentService service = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+            long cancelledId = service.rentCar(SUV, start, 3).getReservationId();
+            modifiedId = service.rentCar(SUV, start.plusDays(5), 3).getReservationId();
+            service.cancelReservation(cancelledId);
+            service.modifyReservation(modifiedId, 1);
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            //when
+            RentService restarted = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+
+            //then
+            assertThat(restarted.getFleet().get(SUV).get(0).getReservations()).singleElement()
+                    .satisfies(reservation -> assertThat(reservation.getEnd()).isEqualTo(start.plusDays(6)));
+            assertThat(restarted.rentCar(SUV, start, 3).getReservationId()).isEqualTo(modifiedId + 1);
+            assertThat(restarted.cancelReservation(modifiedId).isSuccessful()).isTrue();
+        }
+    }
+
+    @Test
+    void rentService_restartedAfterFleetChanges_shouldRestoreAddedAndRetiredCars() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            RentService service = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+            Car retired = service.getFleet().get(SUV).get(0);
+            service.addCars(SUV, 2);
+            service.addCars(VAN, 1);
+            service.retireCar(retired);
+            service.rentCar(SUV, start, 1);
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            //when
+            RentService restarted = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+
+            //then
+            assertThat(restarted.getFleet().get(SUV)).hasSize(2);
+            assertThat(restarted.getFleet().get(VAN)).hasSize(1);
+            assertThat(restarted.getFleet().get(SUV).get(0).getReservations()).hasSize(1);
+            assertThat(restarted.countFreeCars(SUV, start, start.plusDays(1))).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rentService_restartedAfterExpiry_shouldNotRestoreExpiredReservations() throws IOException {
+        //given
+        Path file = directory.resolve("journal.bin");
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        long keptId;
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            RentService service = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+            service.rentCar(SUV, start, 1);
+            keptId = service.rentCar(SUV, start.plusDays(5), 1).getReservationId();
+            service.expireReservations(start.plusDays(2), (type, reservation) -> {
+            });
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL)) {
+            //when
+            RentService restarted = new RentService(carLimits, RentServiceConfig.builder().journal(journal).build());
+
+            //then
+            assertThat(restarted.getFleet().get(SUV).get(0).getReservations()).singleElement()
+                    .satisfies(reservation -> assertThat(reservation.getStart()).isEqualTo(start.plusDays(5)));
+            assertThat(restarted.countFreeCars(SUV, start, start.plusDays(1))).isEqualTo(1);
+            assertThat(restarted.cancelReservation(keptId).isSuccessful()).isTrue();
+        }
+    }
+
+    @Test
+    void rentService_cancelWaitingForFsync_shouldNotHoldCarGuard() throws Exception {
+        //given
+        Path file = directory.resolve("journal.bin");
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        AtomicReference<RentService> service = new AtomicReference<>();
+        AtomicBoolean armed = new AtomicBoolean();
+        List<Result> rebooked = new CopyOnWriteArrayList<>();
+        try (ReservationJournal journal = new ReservationJournal(file, FsyncPolicy.EVERY_COMMIT, FLUSH_INTERVAL) {
+            @Override
+            public void awaitDurable(long sequence) {
+                if (armed.getAndSet(false)) {
+                    // a booking of the same car while the cancellation waits for its fsync
+                    Thread booking = new Thread(() -> rebooked.add(service.get().rentCar(SUV, start, 1)));
+                    booking.start();
+                    try {
+                        booking.join(2_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.awaitDurable(sequence);
+            }
+        }) {
+            service.set(new RentService(carLimits, RentServiceConfig.builder().journal(journal).build()));
+            long reservationId = service.get().rentCar(SUV, start, 1).getReservationId();
+
+            //when
+            armed.set(true);
+            Result cancelled = service.get().cancelReservation(reservationId);
+
+            //then
+            assertTrue(cancelled.isSuccessful());
+            assertThat(rebooked).singleElement().matches(Result::isSuccessful);
+        }
+    }
+
+    private static JournalRecord record(CarType type, int car, LocalDateTime start) {
+        return new JournalRecord(JournalRecord.Kind.RESERVED, type, car, car + 1, start, start.plusDays(1));
+    }
+}
@@ -0,0 +1,111 @@
+package org.rental.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.BookingRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rental.util.CarType.*;
+
+class QuoteEngineTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final RateCard CARD = RateCard.builder()
+            .dailyRate(SEDAN, 4_000L)
+            .dailyRate(VAN, 9_000L)
+            .seasonalMultiplier(Month.JULY, 1.5)
+            .weekendMultiplier(1.25)
+            .lengthDiscount(7, 0.1)
+            .lengthDiscount(28, 0.25)
+            .surgeThreshold(0.5)
+            .maxSurge(0.4)
+            .build();
+
+    @Test
+    void quote_rangeOverWeekend_shouldChargeWeekendDays() {
+        //given
+        QuoteEngine tested = new QuoteEngine(CARD, FIRST_DAY, 365);
+        LocalDateTime friday = LocalDateTime.of(2025, 1, 3, 10, 0);
+
+        //when
+        long price = tested.quote(SEDAN, friday, 3, 0.0);
+
+        //then
+        assertThat(price).isEqualTo(4_000 + 5_000 + 5_000);
+    }
+
+    @Test
+    void quote_weekLongInSummer_shouldApplySeasonAndLengthDiscount() {
+        //given
+        QuoteEngine tested = new QuoteEngine(CARD, FIRST_DAY, 365);
+        LocalDateTime monday = LocalDateTime.of(2025, 7, 7, 10, 0);
+
+        //when
+        long price = tested.quote(VAN, monday, 7, 0.0);
+
+        //then
+        long undiscounted = 5 * 13_500 + 2 * 16_875;
+        assertThat(price).isEqualTo(Math.round(undiscounted * 0.9));
+    }
+
+    @Test
+    void quote_fleetAboveSurgeThreshold_shouldRaisePriceLinearly() {
+        //given
+        QuoteEngine tested = new QuoteEngine(CARD, FIRST_DAY, 365);
+        LocalDateTime monday = LocalDateTime.of(2025, 1, 6, 10, 0);
+
+        //when
+        long calm = tested.quote(SEDAN, monday, 0, 0.5);
+        long busy = tested.quote(SEDAN, monday, 0, 0.75);
+        long full = tested.quote(SEDAN, monday, 0, 1.0);
+
+        //then
+        assertThat(calm).isEqualTo(4_000);
+        assertThat(busy).isEqualTo(4_800);
+        assertThat(full).isEqualTo(5_600);
+    }
+
+    @Test
+    void quoteAll_rangesInsideAndOutsideHorizon_shouldMatchDayByDayPrice() {
+        //given
+        QuoteEngine tested = new QuoteEngine(CARD, FIRST_DAY, 200);
+        Random random = new Random(7);
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            LocalDateTime start = FIRST_DAY.atTime(9, 0).plusDays(random.nextInt(260) - 30);
+            requests.add(new BookingRequest(random.nextBoolean() ? SEDAN : VAN, start, random.nextInt(40)));
+        }
+
+        //when
+        long[] prices = tested.quoteAll(requests, FleetOccupancy.NONE);
+
+        //then
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            int days = Math.max(1, request.getDays());
+            long base = 0;
+            for (int day = 0; day < days; day++) {
+                base += CARD.dailyRate(request.getType(), request.getStart().toLocalDate().plusDays(day));
+            }
+            double discount = days >= 28 ? 0.25 : days >= 7 ? 0.1 : 0;
+            assertThat(prices[i]).as("request %d", i).isEqualTo(Math.round(base * (1 - discount)));
+        }
+    }
+
+    @Test
+    void quote_typeWithoutRate_shouldBeFree() {
+        //given
+        QuoteEngine tested = new QuoteEngine(CARD, FIRST_DAY, 365);
+
+        //when
+        long price = tested.quote(SUV, LocalDateTime.of(2025, 3, 3, 10, 0), 4, 0.0);
+
+        //then
+        assertThat(price).isZero();
+    }
+}
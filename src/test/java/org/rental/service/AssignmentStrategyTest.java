@@ -0,0 +1,74 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssignmentStrategyTest {
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndex(4);
+    }
+
+    @Test
+    void firstFit_shouldReturnUnblockedCarsInFleetOrder() {
+        //given
+        BitSet blocked = new BitSet();
+        blocked.set(1);
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2);
+
+        //when
+        PrimitiveIterator.OfInt actual = AssignmentStrategy.FIRST_FIT.candidates(index, request, blocked);
+
+        //then
+        assertThat(toList(actual)).containsExactly(0, 2, 3);
+    }
+
+    @Test
+    void bestFit_shouldPreferCarWithClosestNeighbouringReservations() {
+        //given
+        index.markReserved(2, new Reservation(LocalDateTime.of(2025, 1, 30, 12, 0), 2));
+        index.markReserved(2, new Reservation(LocalDateTime.of(2025, 2, 6, 12, 0), 2));
+        index.markReserved(3, new Reservation(LocalDateTime.of(2025, 1, 25, 12, 0), 2));
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2);
+
+        //when
+        PrimitiveIterator.OfInt actual = AssignmentStrategy.BEST_FIT.candidates(index, request, new BitSet());
+
+        //then
+        assertThat(toList(actual)).containsExactly(2, 3, 0, 1);
+    }
+
+    @Test
+    void leastLoaded_shouldPreferCarsWithFewerReservations() {
+        //given
+        index.markReserved(0, new Reservation(LocalDateTime.of(2025, 1, 1, 12, 0), 1));
+        index.markReserved(0, new Reservation(LocalDateTime.of(2025, 1, 5, 12, 0), 1));
+        index.markReserved(2, new Reservation(LocalDateTime.of(2025, 1, 1, 12, 0), 1));
+        BitSet blocked = new BitSet();
+        blocked.set(3);
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2);
+
+        //when
+        PrimitiveIterator.OfInt actual = AssignmentStrategy.LEAST_LOADED.candidates(index, request, blocked);
+
+        //then
+        assertThat(toList(actual)).containsExactly(1, 2, 0);
+    }
+
+    private static List<Integer> toList(PrimitiveIterator.OfInt iterator) {
+        List<Integer> result = new ArrayList<>();
+        iterator.forEachRemaining((int car) -> result.add(car));
+        return result;
+    }
+}
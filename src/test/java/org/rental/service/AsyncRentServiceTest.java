@@ -0,0 +1,107 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Car;
+import org.rental.dto.Result;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rental.util.CarType.*;
+
+class AsyncRentServiceTest {
+    private static final LocalDateTime HORIZON_START = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Test
+    void rentCar_tensOfThousandsInFlight_shouldCompleteEveryRequest() {
+        //given
+        int requests = 50_000;
+        RentService service = new RentService(Map.of(SUV, 64, SEDAN, 128, VAN, 32));
+        List<CompletableFuture<Result>> futures = new ArrayList<>(requests);
+        int peakInFlight = 0;
+
+        //when
+        long begin = System.nanoTime();
+        try (AsyncRentService tested = new AsyncRentService(service, 20_000, Duration.ofSeconds(30))) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < requests; i++) {
+                LocalDateTime start = HORIZON_START.plusHours(random.nextInt(24 * 365));
+                futures.add(tested.rentCar(values()[random.nextInt(values().length)], start, random.nextInt(7)));
+                peakInFlight = Math.max(peakInFlight, tested.getInFlight());
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        //then
+        long accepted = futures.stream().map(CompletableFuture::join).filter(Result::isSuccessful).count();
+        int stored = service.getFleet().values().stream()
+                .flatMap(List::stream)
+                .mapToInt(car -> car.getReservations().size())
+                .sum();
+        assertThat(stored).isEqualTo(accepted);
+        System.out.printf("requests=%d peakInFlight=%d accepted=%d throughput=%.0f ops/s%n",
+                requests, peakInFlight, accepted, requests / (elapsed / 1e9));
+    }
+
+    @Test
+    void rentCar_admissionExhausted_shouldRejectAfterTimeout() throws Exception {
+        //given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocker = new CountDownLatch(1);
+        RentService service = new RentService(Map.of(SUV, 1));
+        AsyncRentService tested = new AsyncRentService(service, 1, Duration.ofMillis(50), executor);
+        executor.execute(() -> awaitQuietly(blocker));
+        CompletableFuture<Result> admitted = tested.rentCar(SUV, HORIZON_START, 1);
+
+        //when
+        CompletableFuture<Result> rejected = tested.rentCar(SUV, HORIZON_START.plusDays(5), 1);
+
+        //then
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(rejected.handle((result, failure) -> failure).join()).isInstanceOf(RejectedExecutionException.class);
+        assertThat(tested.getInFlight()).isEqualTo(1);
+        blocker.countDown();
+        assertThat(admitted.get(10, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        assertThat(tested.rentCar(SUV, HORIZON_START.plusDays(5), 1).get(10, TimeUnit.SECONDS).isSuccessful()).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    void findFreeWindows_asyncQuery_shouldMatchService() {
+        //given
+        RentService service = new RentService(Map.of(VAN, 1));
+        service.rentCar(VAN, HORIZON_START.plusHours(12), 1);
+        Car van = service.getFleet().get(VAN).get(0);
+
+        //when
+        try (AsyncRentService tested = new AsyncRentService(service, 4, Duration.ofSeconds(1))) {
+            int free = tested.countFreeCars(VAN, HORIZON_START, HORIZON_START.plusDays(3)).join();
+
+            //then
+            assertThat(free).isZero();
+            assertThat(tested.findFreeWindows(van, HORIZON_START, HORIZON_START.plusDays(3)).join())
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .isEqualTo(service.findFreeWindows(van, HORIZON_START, HORIZON_START.plusDays(3)));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Car;
+import org.rental.dto.Reservation;
+import org.rental.dto.Sedan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityIndexTest {
+
+    @Test
+    void blockedCars_noReservations_shouldBeEmpty() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 5);
+
+        //when
+        BitSet actual = tested.blockedCars(request);
+
+        //then
+        assertThat(actual.isEmpty()).isTrue();
+        assertFalse(tested.isFullyBooked(actual));
+    }
+
+    @Test
+    void blockedCars_wholeDayReservedInsideRequest_shouldBlockCar() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        tested.markReserved(1, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 3));
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 3, 18, 0), 0);
+
+        //when
+        BitSet actual = tested.blockedCars(request);
+
+        //then
+        assertThat(actual.stream()).containsExactly(1);
+    }
+
+    @Test
+    void blockedCars_onlyPartOfDayReserved_shouldNotBlockCar() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        tested.markReserved(0, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1));
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 3, 13, 0), 0);
+
+        //when
+        BitSet actual = tested.blockedCars(request);
+
+        //then
+        assertThat(actual.isEmpty()).isTrue();
+    }
+
+    @Test
+    void blockedCars_hoursCoveredFromNonMidnightStart_shouldBlockCar() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        tested.markReserved(0, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1));
+        tested.markReserved(2, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 30), LocalDateTime.of(2025, 2, 2, 13, 15)));
+
+        //when
+        BitSet sameRequest = tested.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1));
+        BitSet touchingEnd = tested.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0), 1));
+        BitSet halfHour = tested.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 40), LocalDateTime.of(2025, 2, 2, 12, 50)));
+
+        //then
+        assertThat(sameRequest.stream()).containsExactly(0);
+        assertThat(touchingEnd.isEmpty()).isTrue();
+        assertThat(halfHour.stream()).containsExactly(0);
+    }
+
+    @Test
+    void blockedCars_dayFullySpannedByRequest_shouldBlockEveryCarBusyThatDay() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        tested.markReserved(1, new Reservation(LocalDateTime.of(2025, 2, 3, 10, 15), LocalDateTime.of(2025, 2, 3, 10, 45)));
+
+        //when
+        BitSet actual = tested.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 2, 18, 0), 2));
+
+        //then
+        assertThat(actual.stream()).containsExactly(1);
+    }
+
+    @Test
+    void isFullyBooked_allCarsReserved_shouldReturnTrue() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(70);
+        for (int car = 0; car < 70; car++) {
+            tested.markReserved(car, new Reservation(LocalDateTime.of(2025, 2, 1, 0, 0), 10));
+        }
+        Reservation request = new Reservation(LocalDateTime.of(2025, 2, 5, 12, 0), 20);
+
+        //when
+        BitSet actual = tested.blockedCars(request);
+
+        //then
+        assertTrue(tested.isFullyBooked(actual));
+    }
+
+    @Test
+    void markFree_reservationRemoved_shouldClearItsDays() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(2);
+        Car car = new Sedan();
+        Reservation kept = new Reservation(LocalDateTime.of(2025, 2, 1, 8, 0), LocalDateTime.of(2025, 2, 2, 10, 0));
+        Reservation removed = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        car.makeReservation(kept);
+        car.makeReservation(removed);
+        tested.markReserved(0, kept);
+        tested.markReserved(0, removed);
+        car.cancelReservation(removed);
+
+        //when
+        tested.markFree(0, removed, car);
+
+        //then
+        assertThat(tested.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0), 0)).isEmpty()).isTrue();
+        assertThat(tested.busyCars(LocalDate.of(2025, 2, 2).toEpochDay())[0]).isEqualTo(1L);
+        assertThat(tested.busyCars(LocalDate.of(2025, 2, 3).toEpochDay())[0]).isZero();
+        assertThat(tested.busyCars(LocalDate.of(2025, 2, 5).toEpochDay())[0]).isZero();
+        assertThat(tested.load(0)).isEqualTo(1);
+        assertThat(tested.countFree(LocalDateTime.of(2025, 2, 2, 10, 30), LocalDateTime.of(2025, 2, 2, 10, 45))).isEqualTo(1);
+        assertThat(tested.countFree(LocalDateTime.of(2025, 2, 2, 11, 0), LocalDateTime.of(2025, 2, 4, 0, 0))).isEqualTo(2);
+    }
+
+    @Test
+    void countFree_reservationTouchesRange_shouldNotCountCar() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(3);
+        tested.markReserved(0, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2));
+        tested.markReserved(2, new Reservation(LocalDateTime.of(2025, 2, 6, 9, 0), 1));
+
+        //when
+        int actual = tested.countFree(LocalDateTime.of(2025, 2, 4, 12, 30), LocalDateTime.of(2025, 2, 6, 8, 0));
+
+        //then
+        assertThat(actual).isEqualTo(2);
+    }
+
+    @Test
+    void evictBefore_pastDays_shouldDropTheirBitmapsOnly() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(2);
+        Reservation finished = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1);
+        tested.markReserved(0, finished);
+        tested.markReserved(1, new Reservation(LocalDateTime.of(2025, 2, 9, 12, 0), 1));
+
+        //when
+        tested.markFree(0, finished, new Sedan());
+        tested.evictBefore(LocalDateTime.of(2025, 2, 7, 0, 0));
+
+        //then
+        assertThat(tested.load(0)).isZero();
+        assertThat(tested.load(1)).isEqualTo(1);
+        assertThat(tested.busyCars(LocalDate.of(2025, 2, 2).toEpochDay())[0]).isZero();
+        assertThat(tested.busyCars(LocalDate.of(2025, 2, 9).toEpochDay())[0]).isEqualTo(2L);
+        assertThat(tested.countFree(LocalDateTime.of(2025, 2, 9, 12, 0), LocalDateTime.of(2025, 2, 9, 13, 0))).isEqualTo(1);
+    }
+
+    @Test
+    void countFree_constantUpdates_shouldNeverSeeHalfAppliedChange() throws InterruptedException {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(2);
+        Car car = new Sedan();
+        Reservation morning = new Reservation(LocalDateTime.of(2025, 2, 2, 8, 0), LocalDateTime.of(2025, 2, 2, 9, 30));
+        Reservation evening = new Reservation(LocalDateTime.of(2025, 2, 2, 18, 0), LocalDateTime.of(2025, 2, 2, 19, 30));
+        car.makeReservation(morning);
+        tested.markReserved(0, morning);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread updater = new Thread(() -> {
+            Reservation current = morning;
+            while (running.get()) {
+                Reservation next = current == morning ? evening : morning;
+                car.cancelReservation(current);
+                car.makeReservation(next);
+                tested.markChanged(0, current, next, car);
+                current = next;
+            }
+        });
+        updater.start();
+
+        //when
+        Set<Integer> counts = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            counts.add(tested.countFree(LocalDateTime.of(2025, 2, 2, 0, 0), LocalDateTime.of(2025, 2, 2, 23, 0)));
+        }
+        running.set(false);
+        updater.join();
+
+        //then
+        assertThat(counts).containsExactly(1);
+    }
+
+    @Test
+    void countFree_updatesOfSeveralCars_shouldNeverSeeHalfAppliedChange() throws InterruptedException {
+        //given
+        int carCount = 4;
+        AvailabilityIndex tested = new AvailabilityIndex(carCount);
+        Reservation morning = new Reservation(LocalDateTime.of(2025, 2, 2, 8, 0), LocalDateTime.of(2025, 2, 2, 9, 30));
+        Reservation evening = new Reservation(LocalDateTime.of(2025, 2, 2, 18, 0), LocalDateTime.of(2025, 2, 2, 19, 30));
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> updaters = new ArrayList<>();
+        for (int position = 0; position < carCount; position++) {
+            int carPosition = position;
+            Car car = new Sedan();
+            car.makeReservation(morning);
+            tested.markReserved(carPosition, morning);
+            updaters.add(new Thread(() -> {
+                Reservation current = morning;
+                while (running.get()) {
+                    Reservation next = current == morning ? evening : morning;
+                    car.cancelReservation(current);
+                    car.makeReservation(next);
+                    tested.markChanged(carPosition, current, next, car);
+                    current = next;
+                }
+            }));
+        }
+        updaters.forEach(Thread::start);
+
+        //when
+        Set<Integer> counts = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            counts.add(tested.countFree(LocalDateTime.of(2025, 2, 2, 0, 0), LocalDateTime.of(2025, 2, 2, 23, 0)));
+        }
+        running.set(false);
+        for (Thread updater : updaters) {
+            updater.join();
+        }
+
+        //then
+        assertThat(counts).containsExactly(0);
+    }
+
+    @Test
+    void grow_beyondCapacity_shouldKeepReservationsAndRetiredCars() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(2);
+        tested.markReserved(0, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2));
+        tested.markRetired(1);
+
+        //when
+        AvailabilityIndex actual = tested.grow(100);
+
+        //then
+        assertThat(actual.getCapacity()).isGreaterThanOrEqualTo(128);
+        assertThat(actual.load(0)).isEqualTo(1);
+        assertTrue(actual.isRetired(1));
+        assertThat(actual.blockedCars(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0), 0)).stream()).containsExactly(0, 1);
+        assertThat(actual.countFree(LocalDateTime.of(2025, 2, 3, 0, 0), LocalDateTime.of(2025, 2, 3, 1, 0))).isEqualTo(98);
+    }
+
+    @Test
+    void withCarCount_withinCapacity_shouldShareStorage() {
+        //given
+        AvailabilityIndex tested = new AvailabilityIndex(2);
+        AvailabilityIndex actual = tested.withCarCount(3);
+
+        //when
+        actual.markReserved(2, new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 2));
+
+        //then
+        assertThat(actual.countFree(LocalDateTime.of(2025, 2, 3, 0, 0), LocalDateTime.of(2025, 2, 3, 1, 0))).isEqualTo(2);
+        assertThat(tested.countFree(LocalDateTime.of(2025, 2, 3, 0, 0), LocalDateTime.of(2025, 2, 3, 1, 0))).isEqualTo(2);
+        assertThat(actual.load(2)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,83 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandRingTest {
+
+    @Test
+    void poll_emptyRing_shouldReturnNull() {
+        //given
+        CommandRing tested = new CommandRing(4);
+
+        //when
+        Runnable actual = tested.poll();
+
+        //then
+        assertThat(actual).isNull();
+        assertThat(tested.isEmpty()).isTrue();
+    }
+
+    @Test
+    void publish_concurrentProducersWrappingRing_shouldDeliverEveryCommandInProducerOrder() throws Exception {
+        //given
+        int producers = 4;
+        int commandsPerProducer = 10_000;
+        CommandRing tested = new CommandRing(64);
+        int[] lastSeen = new int[producers];
+        List<String> outOfOrder = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        //when
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                awaitQuietly(startSignal);
+                for (int i = 1; i <= commandsPerProducer; i++) {
+                    int command = i;
+                    tested.publish(() -> {
+                        if (lastSeen[producer] != command - 1) {
+                            outOfOrder.add(producer + ":" + command);
+                        }
+                        lastSeen[producer] = command;
+                    });
+                }
+            });
+        }
+        startSignal.countDown();
+        int consumed = 0;
+        while (consumed < producers * commandsPerProducer) {
+            Runnable command = tested.poll();
+            if (command != null) {
+                command.run();
+                consumed++;
+            } else {
+                Thread.yield();
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertThat(outOfOrder).isEmpty();
+        assertThat(lastSeen).containsOnly(commandsPerProducer);
+        assertThat(tested.isEmpty()).isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
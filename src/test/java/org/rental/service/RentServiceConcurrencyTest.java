@@ -0,0 +1,140 @@
+package org.rental.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.rental.dto.Car;
+import org.rental.dto.Reservation;
+import org.rental.util.CarType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.rental.util.CarType.*;
+
+class RentServiceConcurrencyTest {
+    private static final int BOOKINGS_PER_THREAD = 2_000;
+    private static final LocalDateTime HORIZON_START = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @ParameterizedTest
+    @CsvSource({"LOCKING, 1", "LOCKING, 2", "LOCKING, 4", "LOCKING, 8",
+            "SHARDED, 1", "SHARDED, 2", "SHARDED, 4", "SHARDED, 8"})
+    void rentCar_concurrentBookings_shouldNeverOverlap(EngineMode engine, int threads) throws Exception {
+        //given
+        RentService tested = new RentService(Map.of(SUV, 8, SEDAN, 16, VAN, 4),
+                RentServiceConfig.builder().engine(engine).build());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CarType[] types = CarType.values();
+                int successful = 0;
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    CarType type = types[random.nextInt(types.length)];
+                    LocalDateTime start = HORIZON_START.plusHours(random.nextInt(24 * 365));
+                    if (tested.rentCar(type, start, random.nextInt(7)).isSuccessful()) {
+                        successful++;
+                    }
+                }
+                return successful;
+            }));
+        }
+        long begin = System.nanoTime();
+        startSignal.countDown();
+        int successful = 0;
+        for (Future<Integer> future : futures) {
+            successful += future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        tested.close();
+
+        //then
+        int stored = 0;
+        for (List<Car> cars : tested.getFleet().values()) {
+            for (Car car : cars) {
+                assertNoOverlap(new ArrayList<>(car.getReservations()));
+                stored += car.getReservations().size();
+            }
+        }
+        assertThat(stored).isEqualTo(successful);
+
+        long attempts = (long) threads * BOOKINGS_PER_THREAD;
+        System.out.printf("engine=%s threads=%d bookings=%d accepted=%d throughput=%.0f ops/s%n",
+                engine, threads, attempts, successful, attempts / (elapsed / 1e9));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineMode.class)
+    void addCars_duringBookings_shouldKeepEveryBooking(EngineMode engine) throws Exception {
+        //given
+        RentService tested = new RentService(Map.of(VAN, 1), RentServiceConfig.builder().engine(engine).build());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int successful = 0;
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDateTime start = HORIZON_START.plusHours(random.nextInt(24 * 30));
+                    if (tested.rentCar(VAN, start, random.nextInt(3)).isSuccessful()) {
+                        successful++;
+                    }
+                }
+                return successful;
+            }));
+        }
+        startSignal.countDown();
+        for (int i = 0; i < 200; i++) {
+            tested.addCars(VAN, 1);
+        }
+        int successful = 0;
+        for (Future<Integer> future : futures) {
+            successful += future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        tested.close();
+
+        //then
+        int stored = 0;
+        for (Car car : tested.getFleet().get(VAN)) {
+            assertNoOverlap(new ArrayList<>(car.getReservations()));
+            stored += car.getReservations().size();
+        }
+        assertThat(tested.getFleet().get(VAN)).hasSize(201);
+        assertThat(stored).isEqualTo(successful);
+    }
+
+    private void assertNoOverlap(List<Reservation> reservations) {
+        for (int i = 0; i < reservations.size(); i++) {
+            for (int j = i + 1; j < reservations.size(); j++) {
+                Reservation a = reservations.get(i);
+                Reservation b = reservations.get(j);
+                boolean disjoint = a.getEnd().isBefore(b.getStart()) || b.getEnd().isBefore(a.getStart());
+                assertThat(disjoint)
+                        .as("%s-%s overlaps %s-%s", a.getStart(), a.getEnd(), b.getStart(), b.getEnd())
+                        .isTrue();
+            }
+        }
+    }
+}
@@ -4,17 +4,43 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
+import org.rental.analytics.UtilizationReport;
+import org.rental.dto.BookingRequest;
+import org.rental.dto.Car;
+import org.rental.dto.FreeWindow;
+import org.rental.dto.Reservation;
 import org.rental.dto.Result;
+import org.rental.dto.SearchOption;
+import org.rental.dto.SearchRequest;
+import org.rental.events.EventSubscription;
+import org.rental.dto.Suv;
+import org.rental.metrics.MetricsSnapshot;
+import org.rental.persistence.JournalRecord;
+import org.rental.metrics.RecordingMetrics;
+import org.rental.metrics.RejectReason;
+import org.rental.pricing.QuoteEngine;
+import org.rental.pricing.RateCard;
 import org.rental.util.CarType;
+import org.rental.util.ManualClock;
+import org.rental.util.StorageType;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mockStatic;
 import static org.rental.util.CarType.*;
@@ -192,4 +218,810 @@ class RentServiceTest {
         assertFalse(actual.isSuccessful());
     }
 
-}
\ No newline at end of file
+    @Test
+    void rentCars_enoughCarsForAllRequests_shouldBookAll() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, SEDAN, 2, VAN, 4);
+        tested = new RentService(carLimits);
+
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(SEDAN, start, 7),
+                new BookingRequest(SEDAN, start, 7),
+                new BookingRequest(VAN, start, 7));
+
+        //when
+        List<Result> actual = tested.rentCars(requests);
+
+        //then
+        assertThat(actual).hasSize(3).allMatch(Result::isSuccessful);
+        assertThat(reservationCount(SEDAN)).isEqualTo(2);
+        assertThat(reservationCount(VAN)).isEqualTo(1);
+    }
+
+    @Test
+    void rentCars_notEnoughCarsForOneRequest_shouldBookNothing() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, SEDAN, 2, VAN, 4);
+        tested = new RentService(carLimits);
+
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(VAN, start, 7),
+                new BookingRequest(SEDAN, start, 7),
+                new BookingRequest(SEDAN, start, 7),
+                new BookingRequest(SEDAN, start, 7));
+
+        //when
+        List<Result> actual = tested.rentCars(requests);
+
+        //then
+        assertThat(actual).hasSize(4).noneMatch(Result::isSuccessful);
+        assertThat(reservationCount(SEDAN)).isZero();
+        assertThat(reservationCount(VAN)).isZero();
+        assertTrue(tested.rentCar(SEDAN, start, 7).isSuccessful());
+    }
+
+    @Test
+    void rentCars_requestStartsBeforeNow_shouldBookNothing() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, SEDAN, 2, VAN, 4);
+        tested = new RentService(carLimits);
+
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(SEDAN, LocalDateTime.of(2025, 2, 2, 12, 0), 7),
+                new BookingRequest(SEDAN, LocalDateTime.of(2020, 2, 2, 12, 0), 7));
+
+        //when
+        List<Result> actual = tested.rentCars(requests);
+
+        //then
+        assertThat(actual).hasSize(2).noneMatch(Result::isSuccessful);
+        assertThat(reservationCount(SEDAN)).isZero();
+    }
+
+    @Test
+    void rentCars_laterRequestWithNegativeDays_shouldBookNothingAndKeepCarsFree() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(SUV, start, 1),
+                new BookingRequest(SUV, start.plusDays(5), -1));
+
+        //when
+        List<Result> actual = tested.rentCars(requests);
+
+        //then
+        assertThat(actual).hasSize(2).noneMatch(Result::isSuccessful);
+        assertThat(reservationCount(SUV)).isZero();
+        assertThat(tested.countFreeCars(SUV, start, start.plusDays(1))).isEqualTo(1);
+    }
+
+    @Test
+    void rentCar_bestFit_shouldPlaceReservationNextToExistingOne() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 3);
+        tested = new RentService(carLimits, RentServiceConfig.builder()
+                .assignment(AssignmentStrategy.BEST_FIT)
+                .build());
+        tested.rentCar(SEDAN, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        tested.rentCar(SEDAN, LocalDateTime.of(2025, 2, 3, 12, 0), 3);
+
+        //when
+        Result actual = tested.rentCar(SEDAN, LocalDateTime.of(2025, 2, 6, 18, 0), 2);
+
+        //then
+        assertTrue(actual.isSuccessful());
+        assertThat(tested.getFleet().get(SEDAN).get(1).getReservations()).hasSize(2);
+    }
+
+    @Test
+    void rentCar_leastLoaded_shouldSpreadReservationsOverCars() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 3);
+        tested = new RentService(carLimits, RentServiceConfig.builder()
+                .assignment(AssignmentStrategy.LEAST_LOADED)
+                .build());
+
+        //when
+        tested.rentCar(SEDAN, LocalDateTime.of(2025, 2, 2, 12, 0), 1);
+        tested.rentCar(SEDAN, LocalDateTime.of(2025, 3, 2, 12, 0), 1);
+        tested.rentCar(SEDAN, LocalDateTime.of(2025, 4, 2, 12, 0), 1);
+
+        //then
+        assertThat(tested.getFleet().get(SEDAN)).allSatisfy(car -> assertThat(car.getReservations()).hasSize(1));
+    }
+
+    @Test
+    void countFreeCars_someCarsReserved_shouldCountRemainingCars() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 3, SEDAN, 2);
+        tested = new RentService(carLimits);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 4, 12, 0), 3);
+
+        //when
+        int tuesdayToFriday = tested.countFreeCars(SUV, LocalDateTime.of(2025, 2, 4, 0, 0), LocalDateTime.of(2025, 2, 7, 23, 59));
+        int nextWeek = tested.countFreeCars(SUV, LocalDateTime.of(2025, 2, 10, 0, 0), LocalDateTime.of(2025, 2, 14, 23, 59));
+
+        //then
+        assertThat(tuesdayToFriday).isEqualTo(1);
+        assertThat(nextWeek).isEqualTo(3);
+        assertThat(tested.countFreeCars(VAN, LocalDateTime.of(2025, 2, 10, 0, 0), LocalDateTime.of(2025, 2, 14, 0, 0))).isZero();
+    }
+
+    @Test
+    void findFreeWindows_carReservedInsideRange_shouldReturnWindowsAroundReservation() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 1);
+        Car car = tested.getFleet().get(SUV).get(0);
+
+        //when
+        List<FreeWindow> actual = tested.findFreeWindows(car, LocalDateTime.of(2025, 2, 1, 8, 30), LocalDateTime.of(2025, 2, 4, 0, 0));
+
+        //then
+        assertThat(actual).hasSize(2);
+        assertThat(actual.get(0).getStart()).isEqualTo(LocalDateTime.of(2025, 2, 1, 8, 30));
+        assertThat(actual.get(0).getEnd()).isEqualTo(LocalDateTime.of(2025, 2, 2, 11, 59, 59, 999_999_999));
+        assertThat(actual.get(1).getStart()).isEqualTo(LocalDateTime.of(2025, 2, 3, 13, 0));
+        assertThat(actual.get(1).getEnd()).isEqualTo(LocalDateTime.of(2025, 2, 4, 0, 0));
+    }
+
+    @Test
+    void expireReservations_finishedReservations_shouldArchiveAndFreeThem() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, VAN, 1);
+        tested = new RentService(carLimits);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        tested.rentCar(VAN, LocalDateTime.of(2025, 2, 20, 12, 0), 3);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 4, 2, 12, 0), 3);
+        List<Reservation> archived = new ArrayList<>();
+
+        //when
+        int expired = tested.expireReservations(LocalDateTime.of(2025, 3, 1, 0, 0), (type, reservation) -> archived.add(reservation));
+
+        //then
+        assertThat(expired).isEqualTo(2);
+        assertThat(archived).extracting(Reservation::getStart)
+                .containsExactlyInAnyOrder(LocalDateTime.of(2025, 2, 2, 12, 0), LocalDateTime.of(2025, 2, 20, 12, 0));
+        assertThat(reservationCount(SUV)).isEqualTo(1);
+        assertThat(reservationCount(VAN)).isZero();
+        assertThat(tested.countFreeCars(SUV, LocalDateTime.of(2025, 2, 3, 0, 0), LocalDateTime.of(2025, 2, 3, 23, 59))).isEqualTo(1);
+        assertTrue(tested.rentCar(SUV, LocalDateTime.of(2025, 3, 10, 12, 0), 3).isSuccessful());
+    }
+
+    @Test
+    void rentCar_zonedFleet_shouldRejectStartsInThePastOfTheZoneOfTheType() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, VAN, 1);
+        tested = new RentService(carLimits, RentServiceConfig.builder()
+                .clock(new ManualClock(Instant.parse("2100-01-01T00:00:00Z"), ZoneOffset.UTC))
+                .zones(Map.of(SUV, ZoneId.of("Pacific/Auckland")))
+                .build());
+
+        //when
+        Result pastInAuckland = tested.rentCar(SUV, LocalDateTime.of(2100, 1, 1, 10, 0), 1);
+        Result futureInAuckland = tested.rentCar(SUV, LocalDateTime.of(2100, 1, 1, 14, 0), 1);
+        Result futureInUtc = tested.rentCar(VAN, LocalDateTime.of(2100, 1, 1, 10, 0), 1);
+
+        //then
+        assertFalse(pastInAuckland.isSuccessful());
+        assertTrue(futureInAuckland.isSuccessful());
+        assertTrue(futureInUtc.isSuccessful());
+    }
+
+    @Test
+    void expireReservations_byClock_shouldExpireEachTypeInItsOwnZone() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, VAN, 1);
+        ManualClock clock = new ManualClock(Instant.parse("2100-01-01T00:00:00Z"), ZoneOffset.UTC);
+        tested = new RentService(carLimits, RentServiceConfig.builder()
+                .clock(clock)
+                .zones(Map.of(SUV, ZoneId.of("Pacific/Auckland")))
+                .build());
+        tested.rentCar(SUV, LocalDateTime.of(2100, 1, 1, 14, 0), 0);
+        tested.rentCar(VAN, LocalDateTime.of(2100, 1, 1, 14, 0), 0);
+        List<Reservation> archived = new ArrayList<>();
+
+        //when
+        clock.advance(Duration.ofHours(12));
+        int expired = tested.expireReservations((type, reservation) -> archived.add(reservation));
+
+        //then
+        assertThat(expired).isEqualTo(1);
+        assertThat(reservationCount(SUV)).isZero();
+        assertThat(reservationCount(VAN)).isEqualTo(1);
+    }
+
+    @Test
+    void expireReservations_futureCutoff_shouldKeepLiveReservationsInIndex() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        ManualClock clock = new ManualClock(Instant.parse("2100-01-01T00:00:00Z"), ZoneOffset.UTC);
+        tested = new RentService(carLimits, RentServiceConfig.builder().clock(clock).build());
+        tested.rentCar(SUV, LocalDateTime.of(2100, 1, 10, 12, 0), 10);
+
+        //when
+        int expired = tested.expireReservations(LocalDateTime.of(2100, 1, 15, 0, 0), (type, reservation) -> {
+        });
+
+        //then
+        assertThat(expired).isZero();
+        assertThat(tested.countFreeCars(SUV, LocalDateTime.of(2100, 1, 12, 0, 0), LocalDateTime.of(2100, 1, 12, 23, 0)))
+                .isZero();
+        assertFalse(tested.rentCar(SUV, LocalDateTime.of(2100, 1, 12, 12, 0), 1).isSuccessful());
+    }
+
+    @Test
+    void expireReservations_cutoffWithinRoundedEnd_shouldKeepBookingWhileCarKeepsReservation() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits, RentServiceConfig.builder().storage(StorageType.PRIMITIVE).build());
+        Result rented = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0, 30), 1);
+
+        //when
+        int expired = tested.expireReservations(LocalDateTime.of(2025, 2, 3, 12, 0, 45), (type, reservation) -> {
+        });
+
+        //then
+        assertThat(expired).isZero();
+        assertThat(reservationCount(SUV)).isEqualTo(1);
+        assertTrue(tested.cancelReservation(rented.getReservationId()).isSuccessful());
+        assertThat(reservationCount(SUV)).isZero();
+    }
+
+    @Test
+    void expireReservations_waiterStartPassed_shouldTellWaiterNoCarWasFound() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        ManualClock clock = new ManualClock(Instant.parse("2100-01-01T00:00:00Z"), ZoneOffset.UTC);
+        tested = new RentService(carLimits, RentServiceConfig.builder().clock(clock).build());
+        tested.rentCar(SUV, LocalDateTime.of(2100, 1, 1, 10, 0), 2);
+        List<Result> started = new ArrayList<>();
+        List<Result> later = new ArrayList<>();
+        tested.joinWaitlist(SUV, LocalDateTime.of(2100, 1, 1, 12, 0), 1, started::add);
+        tested.joinWaitlist(SUV, LocalDateTime.of(2100, 1, 2, 12, 0), 1, later::add);
+
+        //when
+        clock.advance(Duration.ofHours(13));
+        tested.expireReservations((type, reservation) -> {
+        });
+
+        //then
+        assertThat(started).singleElement().matches(result -> !result.isSuccessful());
+        assertThat(later).isEmpty();
+        assertThat(tested.getWaitlistSize()).isEqualTo(1);
+    }
+
+    @Test
+    void rentCar_successfulBookings_shouldReturnDistinctReservationIds() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 2);
+        tested = new RentService(carLimits);
+
+        //when
+        Result first = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        Result second = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        Result rejected = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+
+        //then
+        assertThat(first.getReservationId()).isNotEqualTo(Result.NO_RESERVATION);
+        assertThat(second.getReservationId()).isNotIn(Result.NO_RESERVATION, first.getReservationId());
+        assertThat(rejected.getReservationId()).isEqualTo(Result.NO_RESERVATION);
+    }
+
+    @Test
+    void cancelReservation_bookedReservation_shouldFreeCar() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        long reservationId = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3).getReservationId();
+
+        //when
+        Result result = tested.cancelReservation(reservationId);
+
+        //then
+        assertTrue(result.isSuccessful());
+        assertThat(result.getReservationId()).isEqualTo(reservationId);
+        assertThat(reservationCount(SUV)).isZero();
+        assertThat(tested.countFreeCars(SUV, LocalDateTime.of(2025, 2, 3, 0, 0), LocalDateTime.of(2025, 2, 3, 23, 59))).isEqualTo(1);
+        assertFalse(tested.cancelReservation(reservationId).isSuccessful());
+        assertTrue(tested.rentCar(SUV, LocalDateTime.of(2025, 2, 3, 12, 0), 1).isSuccessful());
+    }
+
+    @Test
+    void cancelReservation_unknownId_shouldNotSucceed() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+
+        //when
+        Result result = tested.cancelReservation(42);
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertThat(reservationCount(SUV)).isEqualTo(1);
+    }
+
+    @Test
+    void modifyReservation_shortened_shouldFreeRemainingDays() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        long reservationId = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 5).getReservationId();
+
+        //when
+        Result result = tested.modifyReservation(reservationId, 1);
+
+        //then
+        assertTrue(result.isSuccessful());
+        assertThat(tested.getFleet().get(SUV).get(0).getReservations()).singleElement()
+                .satisfies(reservation -> assertThat(reservation.getEnd()).isEqualTo(LocalDateTime.of(2025, 2, 3, 12, 0)));
+        assertTrue(tested.rentCar(SUV, LocalDateTime.of(2025, 2, 4, 12, 0), 1).isSuccessful());
+    }
+
+    @Test
+    void modifyReservation_extendedIntoOtherReservation_shouldKeepOriginal() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        long reservationId = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 2).getReservationId();
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 6, 12, 0), 2);
+
+        //when
+        Result result = tested.modifyReservation(reservationId, 5);
+
+        //then
+        assertFalse(result.isSuccessful());
+        assertThat(tested.getFleet().get(SUV).get(0).getReservations())
+                .extracting(Reservation::getEnd)
+                .containsExactly(LocalDateTime.of(2025, 2, 4, 12, 0), LocalDateTime.of(2025, 2, 8, 12, 0));
+        assertTrue(tested.modifyReservation(reservationId, 3).isSuccessful());
+        assertThat(tested.countFreeCars(SUV, LocalDateTime.of(2025, 2, 5, 0, 0), LocalDateTime.of(2025, 2, 5, 10, 0))).isZero();
+    }
+
+    @Test
+    void shardedEngine_bookCancelAndBatch_shouldBehaveLikeLockingEngine() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1, VAN, 1);
+        tested = new RentService(carLimits, RentServiceConfig.builder().engine(EngineMode.SHARDED).build());
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+
+        //when
+        Result booked = tested.rentCar(SUV, start, 3);
+        Result rejected = tested.rentCar(SUV, start, 1);
+        Result cancelled = tested.cancelReservation(booked.getReservationId());
+        List<Result> batch = tested.rentCars(List.of(new BookingRequest(SUV, start, 1), new BookingRequest(VAN, start, 1)));
+        tested.close();
+
+        //then
+        assertTrue(booked.isSuccessful());
+        assertFalse(rejected.isSuccessful());
+        assertTrue(cancelled.isSuccessful());
+        assertThat(batch).allMatch(Result::isSuccessful);
+        assertThat(reservationCount(SUV)).isEqualTo(1);
+        assertThat(reservationCount(VAN)).isEqualTo(1);
+    }
+
+    @Test
+    void addCars_fleetFullyBooked_shouldBookAddedCars() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        tested.rentCar(SUV, start, 3);
+
+        //when
+        List<Car> added = tested.addCars(SUV, 64);
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < 65; i++) {
+            results.add(tested.rentCar(SUV, start, 1));
+        }
+
+        //then
+        assertThat(added).hasSize(64);
+        assertThat(tested.getFleet().get(SUV)).hasSize(65).containsAll(added);
+        assertThat(results).filteredOn(Result::isSuccessful).hasSize(64);
+        assertThat(tested.countFreeCars(SUV, start, start.plusDays(1))).isZero();
+        assertThat(tested.getFleet().get(SUV).get(0).getReservations()).hasSize(1);
+    }
+
+    @Test
+    void addCars_typeNotInFleet_shouldAddType() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+
+        //when
+        tested.addCars(VAN, 2);
+
+        //then
+        assertThat(tested.getFleet().get(VAN)).hasSize(2);
+        assertTrue(tested.rentCar(VAN, LocalDateTime.of(2025, 2, 2, 12, 0), 1).isSuccessful());
+    }
+
+    @Test
+    void retireCar_futureReservation_shouldReportConflictAndKeepCar() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3);
+        Car car = tested.getFleet().get(SUV).get(0);
+
+        //when
+        List<Reservation> conflicts = tested.retireCar(car);
+
+        //then
+        assertThat(conflicts).singleElement()
+                .satisfies(reservation -> assertThat(reservation.getStart()).isEqualTo(LocalDateTime.of(2025, 2, 2, 12, 0)));
+        assertThat(tested.getFleet().get(SUV)).containsExactly(car);
+    }
+
+    @Test
+    void retireCar_noReservations_shouldTakeCarOutOfService() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 2);
+        tested = new RentService(carLimits);
+        Car retired = tested.getFleet().get(SUV).get(0);
+        Car kept = tested.getFleet().get(SUV).get(1);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+
+        //when
+        List<Reservation> conflicts = tested.retireCar(retired);
+
+        //then
+        assertThat(conflicts).isEmpty();
+        assertThat(tested.getFleet().get(SUV)).containsExactly(kept);
+        assertThat(tested.countFreeCars(SUV, start, start.plusDays(1))).isEqualTo(1);
+        assertThat(tested.findFreeWindows(retired, start, start.plusDays(1))).isEmpty();
+        assertTrue(tested.rentCar(SUV, start, 1).isSuccessful());
+        assertFalse(tested.rentCar(SUV, start, 1).isSuccessful());
+        assertThat(retired.getReservations()).isEmpty();
+    }
+
+    @Test
+    void retireCar_carOfOtherService_shouldThrowException() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        Car other = new RentService(carLimits).getFleet().get(SUV).get(0);
+
+        //when
+        //then
+        assertThat(other.getId()).isEqualTo(tested.getFleet().get(SUV).get(0).getId());
+        assertThrows(IllegalArgumentException.class, () -> tested.retireCar(other));
+        assertThrows(IllegalArgumentException.class, () -> tested.retireCar(new Suv()));
+    }
+
+    @Test
+    void rentCar_metricsEnabled_shouldCountOutcomesByReason() {
+        //given
+        RecordingMetrics metrics = new RecordingMetrics();
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits, RentServiceConfig.builder().metrics(metrics).build());
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+
+        //when
+        tested.rentCar(SUV, start, 3);
+        tested.rentCar(SUV, start, 1);
+        tested.rentCar(SUV, LocalDateTime.of(2023, 2, 2, 12, 0), 1);
+        tested.rentCar(VAN, start, 1);
+        List<MetricsSnapshot> exported = new ArrayList<>();
+        metrics.exportTo(exported::add);
+
+        //then
+        MetricsSnapshot suv = metrics.snapshot(SUV);
+        assertThat(suv.getAccepted()).isEqualTo(1);
+        assertThat(suv.getRejected()).containsEntry(RejectReason.NO_CAPACITY, 1L)
+                .containsEntry(RejectReason.PAST_START, 1L)
+                .containsEntry(RejectReason.UNKNOWN_TYPE, 0L);
+        assertThat(suv.getLatency().getCount()).isEqualTo(3);
+        assertThat(suv.getProbes().getCount()).isEqualTo(2);
+        assertThat(suv.getProbes().getMax()).isEqualTo(1);
+        assertThat(metrics.snapshot(VAN).getRejected()).containsEntry(RejectReason.UNKNOWN_TYPE, 1L);
+        assertThat(exported).extracting(MetricsSnapshot::getType).containsExactly(CarType.values());
+    }
+
+    @Test
+    void rentCar_fleetBookedFromNonMidnightStart_shouldRejectWithoutProbingCars() {
+        //given
+        RecordingMetrics metrics = new RecordingMetrics();
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 100);
+        tested = new RentService(carLimits, RentServiceConfig.builder().metrics(metrics).build());
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        for (int i = 0; i < 100; i++) {
+            tested.rentCar(SEDAN, start, 1);
+        }
+
+        //when
+        Result actual = tested.rentCar(SEDAN, start, 1);
+
+        //then
+        assertFalse(actual.isSuccessful());
+        assertThat(metrics.snapshot(SEDAN).getProbes().getMax()).isEqualTo(1);
+        assertThat(tested.search(SearchRequest.builder().type(SEDAN).start(start).days(1).build())).isEmpty();
+    }
+
+    @Test
+    void rentCar_quoteEngineConfigured_shouldReturnPriceWithSurge() {
+        //given
+        RateCard card = RateCard.builder().dailyRate(SUV, 10_000L).surgeThreshold(0.0).maxSurge(1.0).build();
+        QuoteEngine quotes = new QuoteEngine(card, LocalDate.of(2025, 1, 1), 365);
+        Map<CarType, Integer> carLimits = Map.of(SUV, 2);
+        tested = new RentService(carLimits, RentServiceConfig.builder().quotes(quotes).build());
+        LocalDateTime start = LocalDateTime.of(2025, 2, 3, 12, 0);
+
+        //when
+        Result first = tested.rentCar(SUV, start, 2);
+        Result second = tested.rentCar(SUV, start, 2);
+        Result rejected = tested.rentCar(SUV, start, 2);
+
+        //then
+        assertThat(first.getPrice()).isEqualTo(20_000);
+        assertThat(second.getPrice()).isEqualTo(30_000);
+        assertThat(rejected.getPrice()).isEqualTo(Result.NO_PRICE);
+        assertThat(tested.occupancy(SUV, start.toLocalDate())).isEqualTo(1.0);
+        assertThat(tested.quote(List.of(new BookingRequest(SUV, start.plusDays(10), 1)))).containsExactly(10_000);
+    }
+
+    @Test
+    void joinWaitlist_reservationCancelled_shouldBookLongestWaitingOverlappingRequest() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        long reservationId = tested.rentCar(SUV, start, 3).getReservationId();
+        List<Result> first = new ArrayList<>();
+        List<Result> second = new ArrayList<>();
+        List<Result> elsewhere = new ArrayList<>();
+        tested.joinWaitlist(SUV, start.plusDays(1), 1, first::add);
+        tested.joinWaitlist(SUV, start.plusDays(1), 1, second::add);
+        tested.joinWaitlist(SUV, start.plusDays(2), 0, elsewhere::add);
+
+        //when
+        tested.cancelReservation(reservationId);
+
+        //then
+        assertThat(first).singleElement().satisfies(result -> {
+            assertTrue(result.isSuccessful());
+            assertThat(result.getReservationId()).isNotEqualTo(reservationId);
+        });
+        assertThat(second).isEmpty();
+        assertThat(elsewhere).isEmpty();
+        assertThat(tested.getWaitlistSize()).isEqualTo(2);
+        assertThat(tested.cancelReservation(first.get(0).getReservationId()).isSuccessful()).isTrue();
+        assertThat(second).singleElement().matches(Result::isSuccessful);
+    }
+
+    @Test
+    void joinWaitlist_carsAdded_shouldBookWaitersOnNewCars() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(VAN, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+        tested.rentCar(VAN, start, 5);
+        List<Result> results = new ArrayList<>();
+        long left = tested.joinWaitlist(VAN, start, 1, results::add);
+        for (int i = 0; i < 3; i++) {
+            tested.joinWaitlist(VAN, start, 1, results::add);
+        }
+
+        //when
+        boolean removed = tested.leaveWaitlist(left);
+        tested.addCars(VAN, 2);
+
+        //then
+        assertTrue(removed);
+        assertThat(results).hasSize(2).allMatch(Result::isSuccessful);
+        assertThat(tested.getWaitlistSize()).isEqualTo(1);
+        assertFalse(tested.leaveWaitlist(left));
+    }
+
+    @Test
+    void joinWaitlist_cancelledConcurrently_shouldNeverLeaveWaiterBehindFreeCar() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            //given
+            tested = new RentService(Map.of(VAN, 1));
+            LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+            long reservationId = tested.rentCar(VAN, start, 1).getReservationId();
+            Thread cancel = new Thread(() -> tested.cancelReservation(reservationId));
+
+            //when
+            cancel.start();
+            tested.joinWaitlist(VAN, start, 1, result -> {
+            });
+            cancel.join();
+
+            //then
+            assertThat(tested.getWaitlistSize()).isZero();
+            assertThat(reservationCount(VAN)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void addCars_concurrentAdditions_shouldPromoteWaitersOntoAddedCars() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            //given
+            tested = new RentService(Map.of(VAN, 1));
+            LocalDateTime start = LocalDateTime.of(2025, 2, 2, 12, 0);
+            tested.rentCar(VAN, start, 1);
+            List<Result> results = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tested.joinWaitlist(VAN, start, 1, results::add);
+            }
+            Thread other = new Thread(() -> tested.addCars(VAN, 2));
+
+            //when
+            other.start();
+            tested.addCars(VAN, 2);
+            other.join();
+
+            //then
+            assertThat(results).hasSize(4).allMatch(Result::isSuccessful);
+            assertThat(tested.getFleet().get(VAN))
+                    .allSatisfy(car -> assertThat(car.getReservations()).hasSize(1));
+            assertThat(tested.countFreeCars(VAN, start, start.plusDays(1))).isZero();
+        }
+    }
+
+    @Test
+    void joinWaitlist_carFree_shouldBookRightAway() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 1);
+        tested = new RentService(carLimits);
+        List<Result> results = new ArrayList<>();
+
+        //when
+        tested.joinWaitlist(SEDAN, LocalDateTime.of(2025, 2, 2, 12, 0), 1, results::add);
+
+        //then
+        assertThat(results).singleElement().matches(Result::isSuccessful);
+        assertThat(tested.getWaitlistSize()).isZero();
+    }
+
+    @Test
+    void search_requestedSlotTaken_shouldOfferNearestDaysAndAlternativeTypes() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SEDAN, 2, SUV, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2025, 2, 10, 12, 0);
+        tested.rentCar(SEDAN, start.minusDays(2), 3);
+        tested.rentCar(SEDAN, start, 2);
+        tested.rentCar(SEDAN, start, 2);
+        SearchRequest request = SearchRequest.builder()
+                .type(SEDAN).start(start).days(1).toleranceDays(2).alternative(SUV).limit(4)
+                .build();
+
+        //when
+        List<SearchOption> result = tested.search(request);
+
+        //then
+        assertThat(result).extracting(SearchOption::getType, SearchOption::getShiftDays, SearchOption::getStart)
+                .containsExactly(
+                        tuple(SUV, 0, start),
+                        tuple(SUV, -1, start.minusDays(1)),
+                        tuple(SUV, 1, start.plusDays(1)),
+                        tuple(SEDAN, -2, start.minusDays(2)));
+        assertThat(result.get(3).getCar()).isSameAs(tested.getFleet().get(SEDAN).get(1));
+        assertThat(reservationCount(SEDAN)).isEqualTo(2);
+        assertThat(reservationCount(SUV)).isZero();
+    }
+
+    @Test
+    void search_startsInPastOrUnknownType_shouldOfferOnlyBookableSlots() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(VAN, 1);
+        tested = new RentService(carLimits);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 2, 12, 0);
+        SearchRequest request = SearchRequest.builder()
+                .type(SEDAN).start(start).days(1).toleranceDays(3).alternative(VAN).limit(10)
+                .build();
+
+        //when
+        List<SearchOption> result = tested.search(request);
+
+        //then
+        assertThat(result).extracting(SearchOption::getShiftDays).containsExactly(0, -1, 1, 2, 3);
+        assertThat(result).allMatch(option -> option.getType() == VAN);
+    }
+
+    @Test
+    void report_bookedFleet_shouldReportEachTypeOverCarsInService() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 2, VAN, 1);
+        tested = new RentService(carLimits);
+        LocalDate day = LocalDate.of(2025, 2, 2);
+        tested.rentCar(SUV, day.atTime(12, 0), 1);
+        tested.rentCar(SUV, day.atTime(12, 0), 1);
+        long cancelled = tested.rentCar(VAN, day.atTime(6, 0), 1).getReservationId();
+        tested.cancelReservation(cancelled);
+
+        //when
+        Map<CarType, UtilizationReport> result = tested.report(day, day.plusDays(1));
+
+        //then
+        assertThat(result).containsOnlyKeys(SUV, VAN);
+        assertThat(result.get(SUV).utilization(day)).isEqualTo(0.5);
+        assertThat(result.get(SUV).peakOccupancy(day)).isEqualTo(1.0);
+        assertThat(result.get(SUV).getPeakDay()).isEqualTo(day);
+        assertThat(result.get(VAN).getReservationCount()).isZero();
+        assertThat(result.get(VAN).utilization(day)).isZero();
+    }
+
+    @Test
+    void report_reservationModifiedMeanwhile_shouldSeeItExactlyOnce() throws InterruptedException {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+        LocalDate day = LocalDate.of(2025, 2, 2);
+        long reservationId = tested.rentCar(SUV, day.atTime(12, 0), 1).getReservationId();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Thread modifier = new Thread(() -> {
+            for (int days = 1; !stopped.get(); days = 3 - days) {
+                tested.modifyReservation(reservationId, days);
+            }
+        });
+        List<Long> counts = new ArrayList<>();
+
+        //when
+        modifier.start();
+        for (int i = 0; i < 1_000; i++) {
+            counts.add(tested.report(day, day.plusDays(3)).get(SUV).getReservationCount());
+        }
+        stopped.set(true);
+        modifier.join();
+
+        //then
+        assertThat(counts).containsOnly(1L);
+    }
+
+    @Test
+    void subscribe_bookingsAndFleetChanges_shouldDeliverThemInOrder() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits, RentServiceConfig.builder().eventCapacity(64).build());
+        tested.rentCar(SUV, LocalDateTime.of(2025, 1, 2, 12, 0), 1);
+        EventSubscription subscription = tested.subscribe();
+        long reservationId = tested.rentCar(SUV, LocalDateTime.of(2025, 2, 2, 12, 0), 3).getReservationId();
+        tested.modifyReservation(reservationId, 1);
+        tested.cancelReservation(reservationId);
+        tested.addCars(SUV, 1);
+        List<JournalRecord> changes = new ArrayList<>();
+
+        //when
+        subscription.poll(100, event -> changes.add(event.getChange()));
+
+        //then
+        assertThat(changes).extracting(JournalRecord::getKind, JournalRecord::getReservation)
+                .containsExactly(
+                        tuple(JournalRecord.Kind.RESERVED, reservationId),
+                        tuple(JournalRecord.Kind.MODIFIED, reservationId),
+                        tuple(JournalRecord.Kind.CANCELLED, reservationId),
+                        tuple(JournalRecord.Kind.CAR_ADDED, 0L));
+        assertThat(changes.get(1).getEnd()).isEqualTo(LocalDateTime.of(2025, 2, 3, 12, 0));
+        assertThat(tested.subscribe(0).getLag()).isEqualTo(5);
+    }
+
+    @Test
+    void subscribe_noEventCapacity_shouldThrowException() {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        tested = new RentService(carLimits);
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> tested.subscribe());
+    }
+
+    private int reservationCount(CarType type) {
+        return tested.getFleet().get(type).stream()
+                .mapToInt(car -> car.getReservations().size())
+                .sum();
+    }
+
+}
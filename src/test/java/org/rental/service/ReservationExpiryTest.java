@@ -0,0 +1,55 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+import org.rental.util.CarType;
+import org.rental.util.ManualClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rental.util.CarType.*;
+
+class ReservationExpiryTest {
+
+    @Test
+    void expiry_archiveFailedOnce_shouldKeepRunningAndArchiveEveryReservation() throws InterruptedException {
+        //given
+        Map<CarType, Integer> carLimits = Map.of(SUV, 1);
+        ManualClock clock = new ManualClock(Instant.parse("2100-01-01T00:00:00Z"), ZoneOffset.UTC);
+        RentService service = new RentService(carLimits, RentServiceConfig.builder().clock(clock).build());
+        service.rentCar(SUV, LocalDateTime.of(2100, 1, 1, 10, 0), 1);
+        service.rentCar(SUV, LocalDateTime.of(2100, 1, 5, 10, 0), 1);
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch archivedAfterFailure = new CountDownLatch(2);
+        List<Reservation> archived = new CopyOnWriteArrayList<>();
+        clock.advance(Duration.ofDays(3));
+
+        //when
+        try (ReservationExpiry ignored = new ReservationExpiry(service, (type, reservation) -> {
+            if (failed.getCount() > 0) {
+                failed.countDown();
+                throw new IllegalStateException("Archive unavailable");
+            }
+            archived.add(reservation);
+            archivedAfterFailure.countDown();
+        }, Duration.ofMillis(10))) {
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            clock.advance(Duration.ofDays(4));
+
+            //then
+            assertTrue(archivedAfterFailure.await(5, TimeUnit.SECONDS));
+        }
+        assertThat(archived).extracting(Reservation::getStart)
+                .containsExactly(LocalDateTime.of(2100, 1, 1, 10, 0), LocalDateTime.of(2100, 1, 5, 10, 0));
+    }
+}
@@ -0,0 +1,81 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.rental.metrics.BookingMetrics;
+import org.rental.util.CarType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.rental.util.CarType.SUV;
+
+class ShardedEngineTest {
+
+    @Test
+    void submit_afterClose_shouldThrow() {
+        //given
+        ShardedEngine tested = new ShardedEngine(EnumSet.allOf(CarType.class), BookingMetrics.DISABLED);
+        tested.close();
+
+        //when //then
+        assertThatThrownBy(() -> tested.submit(SUV, () -> 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> tested.withAllCars(() -> 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void submit_racingClose_shouldRunOrRejectEveryCommand() throws Exception {
+        //given
+        int rounds = 200;
+        int submitters = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(submitters);
+        List<String> stuck = new ArrayList<>();
+
+        //when
+        try {
+            for (int round = 0; round < rounds; round++) {
+                ShardedEngine tested = new ShardedEngine(EnumSet.allOf(CarType.class), BookingMetrics.DISABLED);
+                CountDownLatch startSignal = new CountDownLatch(1);
+                List<Future<?>> submissions = new ArrayList<>();
+                for (int i = 0; i < submitters; i++) {
+                    submissions.add(executor.submit(() -> {
+                        startSignal.await();
+                        for (int command = 0; command < 100; command++) {
+                            try {
+                                tested.submit(SUV, () -> 1);
+                            } catch (IllegalStateException closed) {
+                                return null;
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                startSignal.countDown();
+                tested.close();
+                for (Future<?> submission : submissions) {
+                    try {
+                        submission.get(5, TimeUnit.SECONDS);
+                    } catch (TimeoutException e) {
+                        stuck.add("round " + round);
+                    }
+                }
+                if (!stuck.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //then
+        assertThat(stuck).isEmpty();
+    }
+}
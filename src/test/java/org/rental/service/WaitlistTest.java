@@ -0,0 +1,101 @@
+package org.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rental.util.CarType.*;
+
+class WaitlistTest {
+    private static final LocalDateTime START = LocalDateTime.of(2100, 1, 1, 10, 0);
+
+    @Test
+    void overlapping_manyWaiters_shouldReturnOnlyOverlappingOnesOfTypeInTicketOrder() {
+        //given
+        Waitlist tested = new Waitlist();
+        for (int day = 0; day < 100_000; day++) {
+            tested.add(SUV, START.plusDays(day % 1_000), 0, result -> {
+            });
+        }
+        Waitlist.Waiter late = tested.add(SUV, START.plusDays(498), 3, result -> {
+        });
+        tested.add(VAN, START.plusDays(500), 1, result -> {
+        });
+
+        //when
+        List<Waitlist.Waiter> actual = tested.overlapping(SUV, new Reservation(START.plusDays(500), 0));
+
+        //then
+        assertThat(actual).hasSize(101);
+        assertThat(actual).extracting(Waitlist.Waiter::ticket).isSorted();
+        assertThat(actual).last().isEqualTo(late);
+        assertThat(actual).allMatch(waiter -> waiter.type() == SUV);
+    }
+
+    @Test
+    void claim_claimedTwice_shouldOnlySucceedOnce() {
+        //given
+        Waitlist tested = new Waitlist();
+        Waitlist.Waiter waiter = tested.add(SEDAN, START, 1, result -> {
+        });
+
+        //when
+        boolean first = tested.claim(waiter);
+        boolean second = tested.claim(waiter);
+
+        //then
+        assertTrue(first);
+        assertFalse(second);
+        assertThat(tested.size()).isZero();
+        assertThat(tested.overlapping(SEDAN, new Reservation(START, 1))).isEmpty();
+        tested.restore(waiter);
+        assertThat(tested.overlapping(SEDAN, new Reservation(START, 1))).containsExactly(waiter);
+    }
+
+    @Test
+    void overlapping_longestWaiterClaimed_shouldStillFindLongWaitersLeft() {
+        //given
+        Waitlist tested = new Waitlist();
+        Waitlist.Waiter claimed = tested.add(SUV, START, 30, result -> {
+        });
+        Waitlist.Waiter left = tested.add(SUV, START.plusDays(1), 30, result -> {
+        });
+        tested.add(SUV, START.plusDays(40), 1, result -> {
+        });
+
+        //when
+        tested.claim(claimed);
+        List<Waitlist.Waiter> actual = tested.overlapping(SUV, new Reservation(START.plusDays(25), 0));
+
+        //then
+        assertThat(actual).containsExactly(left);
+    }
+
+    @Test
+    void removeStarted_waitersBeforeAndAfterNow_shouldRemoveOnlyStartedOnesOfType() {
+        //given
+        Waitlist tested = new Waitlist();
+        Waitlist.Waiter started = tested.add(SUV, START, 1, result -> {
+        });
+        Waitlist.Waiter startingNow = tested.add(SUV, START.plusHours(1), 1, result -> {
+        });
+        Waitlist.Waiter future = tested.add(SUV, START.plusHours(1).plusSeconds(30), 1, result -> {
+        });
+        Waitlist.Waiter otherType = tested.add(VAN, START, 1, result -> {
+        });
+
+        //when
+        List<Waitlist.Waiter> actual = tested.removeStarted(SUV, START.plusHours(1));
+
+        //then
+        assertThat(actual).containsExactly(started, startingNow);
+        assertThat(tested.all(SUV)).containsExactly(future);
+        assertThat(tested.all(VAN)).containsExactly(otherType);
+        assertThat(tested.size()).isEqualTo(2);
+    }
+}
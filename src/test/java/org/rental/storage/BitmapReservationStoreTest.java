@@ -0,0 +1,165 @@
+package org.rental.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmapReservationStoreTest {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int OPERATIONS = 5_000;
+
+    @Test
+    void add_sharedHourWithoutOverlap_shouldAddBoth() {
+        //given
+        BitmapReservationStore tested = new BitmapReservationStore();
+        tested.add(new Reservation(ORIGIN.plusMinutes(10), ORIGIN.plusMinutes(20)));
+
+        //when
+        boolean result = tested.add(new Reservation(ORIGIN.plusMinutes(30), ORIGIN.plusHours(5)));
+
+        //then
+        assertTrue(result);
+        assertFalse(tested.isFree(new Reservation(ORIGIN.plusHours(2), ORIGIN.plusHours(2))));
+        assertFalse(tested.isFree(new Reservation(ORIGIN.plusMinutes(15), ORIGIN.plusMinutes(15))));
+        assertTrue(tested.isFree(new Reservation(ORIGIN.plusMinutes(25), ORIGIN.plusMinutes(25))));
+    }
+
+    @Test
+    void remove_neighbourSharesHour_shouldKeepNeighbourBlocked() {
+        //given
+        BitmapReservationStore tested = new BitmapReservationStore();
+        Reservation removed = new Reservation(ORIGIN, ORIGIN.plusMinutes(20));
+        tested.add(removed);
+        tested.add(new Reservation(ORIGIN.plusMinutes(40), ORIGIN.plusHours(2)));
+
+        //when
+        boolean result = tested.remove(removed);
+
+        //then
+        assertTrue(result);
+        assertTrue(tested.isFree(new Reservation(ORIGIN, ORIGIN.plusMinutes(30))));
+        assertFalse(tested.isFree(new Reservation(ORIGIN.plusMinutes(30), ORIGIN.plusMinutes(45))));
+    }
+
+    @Test
+    void removeEndedBefore_remainingReservationSharesHour_shouldKeepItBlocked() {
+        //given
+        BitmapReservationStore tested = new BitmapReservationStore();
+        tested.add(new Reservation(ORIGIN, ORIGIN.plusMinutes(20)));
+        tested.add(new Reservation(ORIGIN.plusMinutes(40), ORIGIN.plusHours(2)));
+
+        //when
+        int removed = tested.removeEndedBefore(ORIGIN.plusMinutes(30), reservation -> {
+        });
+
+        //then
+        assertThat(removed).isEqualTo(1);
+        assertFalse(tested.isFree(new Reservation(ORIGIN.plusMinutes(45), ORIGIN.plusMinutes(50))));
+        assertTrue(tested.isFree(new Reservation(ORIGIN.plusMinutes(10), ORIGIN.plusMinutes(30))));
+    }
+
+    @Test
+    void removeEndedBefore_windowMoved_shouldFreeHoursEnteringWindow() {
+        //given
+        BitmapReservationStore tested = new BitmapReservationStore();
+        tested.add(new Reservation(ORIGIN, ORIGIN.plusHours(10)));
+        LocalDateTime enteringHour = ORIGIN.plusHours(BitmapReservationStore.HORIZON_HOURS + 2L);
+
+        //when
+        tested.removeEndedBefore(ORIGIN.plusHours(5), reservation -> {
+        });
+
+        //then
+        assertTrue(tested.isFree(new Reservation(enteringHour, enteringHour.plusMinutes(30))));
+        assertTrue(tested.add(new Reservation(enteringHour, enteringHour.plusMinutes(30))));
+        assertFalse(tested.isFree(new Reservation(ORIGIN.plusHours(6), ORIGIN.plusHours(7))));
+    }
+
+    @Test
+    void removeEndedBefore_windowMovedPastHorizon_shouldStillDetectConflicts() {
+        //given
+        BitmapReservationStore tested = new BitmapReservationStore();
+        LocalDateTime beyondHorizon = ORIGIN.plusHours(BitmapReservationStore.HORIZON_HOURS + 100L);
+        tested.add(new Reservation(ORIGIN, 1));
+        tested.add(new Reservation(beyondHorizon, 2));
+
+        //when
+        tested.removeEndedBefore(ORIGIN.plusDays(10), reservation -> {
+        });
+
+        //then
+        assertThat(tested.size()).isEqualTo(1);
+        assertFalse(tested.isFree(new Reservation(beyondHorizon.plusDays(1), 0)));
+        assertFalse(tested.add(new Reservation(beyondHorizon.plusHours(3), 1)));
+        assertTrue(tested.add(new Reservation(beyondHorizon.plusDays(3), 1)));
+    }
+
+    /**
+     * Applies the same random operations to a bitmap and a tree set store and expects identical answers.
+     * Times are whole minutes, which both stores keep exactly.
+     */
+    @ParameterizedTest
+    @CsvSource({"1, 2", "2, 2", "3, 30", "4, 30", "5, 1200", "6, 1200"})
+    void randomOperations_shouldMatchTreeSetStore(long seed, int spanDays) {
+        //given
+        Random random = new Random(seed);
+        BitmapReservationStore tested = new BitmapReservationStore();
+        TreeSetReservationStore expected = new TreeSetReservationStore();
+        List<Reservation> added = new ArrayList<>();
+        LocalDateTime cutoff = ORIGIN;
+
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            //when
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                Reservation reservation = randomReservation(random, spanDays);
+                boolean result = tested.add(reservation);
+                assertThat(result).as("add #%d", operation).isEqualTo(expected.add(reservation));
+                if (result) {
+                    added.add(reservation);
+                }
+            } else if (kind < 7 && !added.isEmpty()) {
+                Reservation reservation = added.remove(random.nextInt(added.size()));
+                assertThat(tested.remove(reservation)).as("remove #%d", operation).isEqualTo(expected.remove(reservation));
+            } else if (kind < 9) {
+                Reservation reservation = randomReservation(random, spanDays);
+                assertThat(tested.isFree(reservation)).as("isFree #%d", operation).isEqualTo(expected.isFree(reservation));
+            } else {
+                cutoff = cutoff.plusMinutes(random.nextInt(spanDays * 24 * 60 / 50));
+                List<Reservation> testedRemoved = new ArrayList<>();
+                List<Reservation> expectedRemoved = new ArrayList<>();
+                tested.removeEndedBefore(cutoff, testedRemoved::add);
+                expected.removeEndedBefore(cutoff, expectedRemoved::add);
+                assertThat(testedRemoved).usingRecursiveFieldByFieldElementComparator().isEqualTo(expectedRemoved);
+                LocalDateTime removedBefore = cutoff;
+                added.removeIf(reservation -> reservation.getEnd().isBefore(removedBefore));
+            }
+
+            //then
+            assertThat(tested.size()).as("size after #%d", operation).isEqualTo(expected.size());
+        }
+        assertThat(tested.toList()).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected.toList());
+    }
+
+    /**
+     * Mixes whole-hour bookings, which the bitmaps decide alone, with short ones sharing hours.
+     */
+    private static Reservation randomReservation(Random random, int spanDays) {
+        LocalDateTime start = ORIGIN.plusMinutes(random.nextInt(spanDays * 24 * 60));
+        if (random.nextInt(4) == 0) {
+            start = start.withMinute(0);
+            return new Reservation(start, start.plusHours(1 + random.nextInt(12)));
+        }
+        return new Reservation(start, start.plusMinutes(random.nextInt(40)));
+    }
+}
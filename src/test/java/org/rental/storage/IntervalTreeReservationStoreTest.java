@@ -0,0 +1,89 @@
+package org.rental.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeReservationStoreTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 2, 2, 12, 0);
+
+    private IntervalTreeReservationStore tested;
+
+    @BeforeEach
+    void setUp() {
+        tested = new IntervalTreeReservationStore();
+    }
+
+    @Test
+    void add_overlapsOnlyReservationDeepInTree_shouldRejectReservation() {
+        //given
+        for (int i = 0; i < 100; i++) {
+            tested.add(new Reservation(START.plusDays(2L * i), 1));
+        }
+
+        //when
+        boolean result = tested.add(new Reservation(START.plusDays(74).plusHours(23), START.plusDays(75)));
+
+        //then
+        assertFalse(result);
+        assertThat(tested.size()).isEqualTo(100);
+    }
+
+    @Test
+    void overlapping_rangeAcrossReservations_shouldReturnThemOrderedByStart() {
+        //given
+        for (int i = 9; i >= 0; i--) {
+            tested.add(new Reservation(START.plusDays(2L * i), 1));
+        }
+
+        //when
+        List<Reservation> result = tested.overlapping(new Reservation(START.plusDays(3), START.plusDays(8)));
+
+        //then
+        assertThat(result).extracting(Reservation::getStart)
+                .containsExactly(START.plusDays(2), START.plusDays(4), START.plusDays(6), START.plusDays(8));
+    }
+
+    @Test
+    void remove_overlappingButDifferentReservation_shouldKeepStoredOne() {
+        //given
+        Reservation stored = new Reservation(START, 2);
+        tested.add(stored);
+
+        //when
+        boolean overlapping = tested.remove(new Reservation(START, 1));
+        boolean same = tested.remove(new Reservation(START, 2));
+
+        //then
+        assertFalse(overlapping);
+        assertTrue(same);
+        assertThat(tested.size()).isZero();
+    }
+
+    @Test
+    void removeEndedBefore_cutoffInsideReservation_shouldRemoveOnlyFinishedOnes() {
+        //given
+        for (int i = 0; i < 10; i++) {
+            tested.add(new Reservation(START.plusDays(2L * i), 1));
+        }
+        List<Reservation> removed = new ArrayList<>();
+
+        //when
+        int result = tested.removeEndedBefore(START.plusDays(6).plusHours(1), removed::add);
+
+        //then
+        assertThat(result).isEqualTo(3);
+        assertThat(removed).extracting(Reservation::getStart)
+                .containsExactly(START, START.plusDays(2), START.plusDays(4));
+        assertThat(tested.toList()).first().extracting(Reservation::getStart).isEqualTo(START.plusDays(6));
+        assertTrue(tested.isFree(new Reservation(START, 5)));
+    }
+}
@@ -0,0 +1,174 @@
+package org.rental.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveReservationStoreTest {
+    private PrimitiveReservationStore tested;
+
+    @BeforeEach
+    void setUp() {
+        tested = new PrimitiveReservationStore();
+    }
+
+    @Test
+    void add_emptyStore_shouldAddReservation() {
+        //given
+        Reservation reservation = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18);
+
+        //when
+        boolean result = tested.add(reservation);
+
+        //then
+        assertTrue(result);
+        assertThat(tested.toList())
+                .singleElement()
+                .satisfies(actual -> {
+                    assertThat(actual.getStart()).isEqualTo(reservation.getStart());
+                    assertThat(actual.getEnd()).isEqualTo(reservation.getEnd());
+                });
+    }
+
+    @Test
+    void add_outOfOrder_shouldKeepReservationsSortedByStart() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 4, 2, 12, 0), 18));
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18));
+        tested.add(new Reservation(LocalDateTime.of(2025, 6, 2, 12, 0), 18));
+
+        //when
+        boolean result = tested.add(new Reservation(LocalDateTime.of(2025, 3, 2, 12, 0), 18));
+
+        //then
+        assertTrue(result);
+        assertThat(tested.toList())
+                .extracting(Reservation::getStart)
+                .containsExactly(
+                        LocalDateTime.of(2025, 2, 2, 12, 0),
+                        LocalDateTime.of(2025, 3, 2, 12, 0),
+                        LocalDateTime.of(2025, 4, 2, 12, 0),
+                        LocalDateTime.of(2025, 6, 2, 12, 0));
+    }
+
+    @Test
+    void add_overlapsPreviousReservation_shouldNotAddReservation() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18));
+
+        //when
+        boolean result = tested.add(new Reservation(LocalDateTime.of(2025, 2, 20, 12, 0), 1));
+
+        //then
+        assertFalse(result);
+        assertThat(tested.size()).isEqualTo(1);
+    }
+
+    @Test
+    void add_overlapsNextReservation_shouldNotAddReservation() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18));
+
+        //when
+        boolean result = tested.add(new Reservation(LocalDateTime.of(2025, 1, 20, 12, 0), 13));
+
+        //then
+        assertFalse(result);
+        assertThat(tested.size()).isEqualTo(1);
+    }
+
+    @Test
+    void add_sameStart_shouldNotAddReservation() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18));
+
+        //when
+        boolean result = tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 0));
+
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    void add_subMinuteStart_shouldTreatIntervalConservatively() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), LocalDateTime.of(2025, 2, 3, 12, 0, 30)));
+
+        //when
+        boolean result = tested.add(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0, 45), 1));
+
+        //then
+        assertFalse(result);
+    }
+
+    @Test
+    void add_manyReservations_shouldGrowStorage() {
+        //given
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        //when
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tested.add(new Reservation(start.plusDays(2L * i), 1)));
+        }
+
+        //then
+        assertThat(tested.size()).isEqualTo(100);
+    }
+
+    @Test
+    void remove_storedReservation_shouldFreeItsSlot() {
+        //given
+        Reservation first = new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18);
+        Reservation second = new Reservation(LocalDateTime.of(2025, 3, 2, 12, 0), 18);
+        tested.add(first);
+        tested.add(second);
+
+        //when
+        boolean result = tested.remove(first);
+
+        //then
+        assertTrue(result);
+        assertThat(tested.toList()).extracting(Reservation::getStart).containsExactly(second.getStart());
+        assertTrue(tested.add(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0), 1)));
+    }
+
+    @Test
+    void remove_onlyOverlappingReservation_shouldNotRemoveAnything() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 18));
+
+        //when
+        boolean result = tested.remove(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1));
+
+        //then
+        assertFalse(result);
+        assertThat(tested.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeEndedBefore_finishedReservations_shouldHandThemToSink() {
+        //given
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 2, 12, 0), 1));
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 5, 12, 0), 1));
+        tested.add(new Reservation(LocalDateTime.of(2025, 2, 9, 12, 0), 1));
+        List<Reservation> archived = new ArrayList<>();
+
+        //when
+        int removed = tested.removeEndedBefore(LocalDateTime.of(2025, 2, 7, 0, 0), archived::add);
+
+        //then
+        assertThat(removed).isEqualTo(2);
+        assertThat(archived).extracting(Reservation::getStart)
+                .containsExactly(LocalDateTime.of(2025, 2, 2, 12, 0), LocalDateTime.of(2025, 2, 5, 12, 0));
+        assertThat(tested.toList()).extracting(Reservation::getStart).containsExactly(LocalDateTime.of(2025, 2, 9, 12, 0));
+        assertTrue(tested.add(new Reservation(LocalDateTime.of(2025, 2, 3, 12, 0), 1)));
+    }
+}
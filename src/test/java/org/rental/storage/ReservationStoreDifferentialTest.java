@@ -0,0 +1,97 @@
+package org.rental.storage;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.rental.dto.Reservation;
+import org.rental.util.StorageType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the same random operations to every store and to a plain list checked by brute force, and expects
+ * identical answers. Times are whole minutes, which all stores keep exactly.
+ */
+class ReservationStoreDifferentialTest {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2100, 1, 1, 0, 0);
+    private static final int OPERATIONS = 4000;
+
+    @ParameterizedTest
+    @MethodSource("storesAndSeeds")
+    void randomOperations_shouldMatchBruteForce(StorageType storage, long seed, int spanDays) {
+        //given
+        Random random = new Random(seed);
+        ReservationStore tested = storage.createStore();
+        List<Reservation> expected = new ArrayList<>();
+        LocalDateTime cutoff = ORIGIN;
+
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            //when
+            int kind = random.nextInt(12);
+            if (kind < 5) {
+                Reservation reservation = randomReservation(random, spanDays);
+                boolean free = expected.stream().noneMatch(reservation::overlaps);
+                assertThat(tested.add(reservation)).as("add #%d", operation).isEqualTo(free);
+                if (free) {
+                    expected.add(reservation);
+                }
+            } else if (kind < 7 && !expected.isEmpty()) {
+                Reservation stored = expected.get(random.nextInt(expected.size()));
+                // a reservation that only overlaps the stored one must not remove it
+                Reservation reservation = random.nextBoolean() ? stored
+                        : new Reservation(stored.getStart(), stored.getEnd().plusMinutes(1));
+                boolean removed = expected.remove(reservation);
+                assertThat(tested.remove(reservation)).as("remove #%d", operation).isEqualTo(removed);
+            } else if (kind < 9) {
+                Reservation reservation = randomReservation(random, spanDays);
+                assertThat(tested.isFree(reservation)).as("isFree #%d", operation)
+                        .isEqualTo(expected.stream().noneMatch(reservation::overlaps));
+            } else if (kind < 11) {
+                Reservation range = randomReservation(random, spanDays);
+                assertThat(tested.overlapping(range)).as("overlapping #%d", operation)
+                        .isEqualTo(expected.stream().filter(range::overlaps).sorted().toList());
+            } else {
+                cutoff = cutoff.plusMinutes(random.nextInt(spanDays * 24 * 60 / 50));
+                LocalDateTime removedBefore = cutoff;
+                List<Reservation> removed = new ArrayList<>();
+                tested.removeEndedBefore(cutoff, removed::add);
+                assertThat(removed).as("removeEndedBefore #%d", operation)
+                        .isEqualTo(expected.stream().filter(reservation -> reservation.getEnd().isBefore(removedBefore))
+                                .sorted().toList());
+                expected.removeIf(reservation -> reservation.getEnd().isBefore(removedBefore));
+            }
+
+            //then
+            assertThat(tested.size()).as("size after #%d", operation).isEqualTo(expected.size());
+        }
+        expected.sort(Comparator.naturalOrder());
+        assertThat(tested.toList()).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> storesAndSeeds() {
+        return Stream.of(StorageType.values())
+                .flatMap(storage -> Stream.of(
+                        Arguments.of(storage, 1L, 2),
+                        Arguments.of(storage, 2L, 30),
+                        Arguments.of(storage, 3L, 1200)));
+    }
+
+    /**
+     * Mixes short reservations with ones spanning hours to days, so new ones often overlap several stored ones.
+     */
+    private static Reservation randomReservation(Random random, int spanDays) {
+        LocalDateTime start = ORIGIN.plusMinutes(random.nextInt(spanDays * 24 * 60));
+        return switch (random.nextInt(3)) {
+            case 0 -> new Reservation(start, start.plusMinutes(random.nextInt(40)));
+            case 1 -> new Reservation(start, start.plusHours(1 + random.nextInt(12)));
+            default -> new Reservation(start, start.plusDays(1 + random.nextInt(3)));
+        };
+    }
+}
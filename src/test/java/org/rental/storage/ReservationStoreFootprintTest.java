@@ -0,0 +1,49 @@
+package org.rental.storage;
+
+import org.junit.jupiter.api.Test;
+import org.rental.dto.Reservation;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationStoreFootprintTest {
+    private static final int RESERVATIONS = 200_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void primitiveStore_manyReservations_shouldGrowArraysByAtMostHalf() {
+        //given
+        PrimitiveReservationStore tested = new PrimitiveReservationStore();
+
+        //when
+        fill(tested);
+
+        //then
+        assertThat(tested.size()).isEqualTo(RESERVATIONS);
+        assertThat(tested.capacity()).isBetween(RESERVATIONS, RESERVATIONS + RESERVATIONS / 2 + 1);
+    }
+
+    @Test
+    void primitiveStore_mostReservationsExpired_shouldShrinkArraysToLiveOnes() {
+        //given
+        PrimitiveReservationStore tested = new PrimitiveReservationStore();
+        fill(tested);
+        int kept = RESERVATIONS / 10;
+
+        //when
+        int removed = tested.removeEndedBefore(START.plusHours(2L * (RESERVATIONS - kept)), reservation -> {
+        });
+
+        //then
+        assertThat(removed).isEqualTo(RESERVATIONS - kept);
+        assertThat(tested.size()).isEqualTo(kept);
+        assertThat(tested.capacity()).isBetween(kept, 2 * kept);
+    }
+
+    private static void fill(PrimitiveReservationStore store) {
+        for (int i = 0; i < RESERVATIONS; i++) {
+            store.add(new Reservation(START.plusHours(2L * i), START.plusHours(2L * i + 1)));
+        }
+    }
+}
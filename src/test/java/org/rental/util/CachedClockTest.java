@@ -0,0 +1,53 @@
+package org.rental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedClockTest {
+    private static final Instant START = Instant.parse("2100-01-01T00:00:00Z");
+
+    @Test
+    void instant_sourceMoved_shouldFollowOnNextTick() throws InterruptedException {
+        //given
+        ManualClock source = new ManualClock(START, ZoneOffset.UTC);
+        try (CachedClock tested = new CachedClock(source, Duration.ofMillis(1))) {
+            Clock auckland = tested.withZone(ZoneId.of("Pacific/Auckland"));
+
+            //when
+            source.advance(Duration.ofHours(1));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!tested.instant().equals(START.plusSeconds(3600)) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            //then
+            assertThat(tested.instant()).isEqualTo(START.plusSeconds(3600));
+            assertThat(auckland.instant()).isEqualTo(tested.instant());
+            assertThat(LocalDateTime.now(auckland)).isEqualTo(LocalDateTime.of(2100, 1, 1, 14, 0));
+        }
+    }
+
+    @Test
+    void instant_closed_shouldKeepLastInstant() {
+        //given
+        ManualClock source = new ManualClock(START, ZoneOffset.UTC);
+        CachedClock tested = new CachedClock(source, Duration.ofMillis(1));
+
+        //when
+        tested.close();
+        Instant last = tested.instant();
+        source.advance(Duration.ofHours(1));
+
+        //then
+        assertThat(tested.instant()).isEqualTo(last);
+        assertThat(tested.withZone(ZoneOffset.UTC)).isSameAs(tested);
+    }
+}
@@ -25,6 +25,18 @@ class CarFactoryTest {
         assertThat(result).isInstanceOf(clazz);
     }
 
+    @ParameterizedTest
+    @MethodSource("provideCarTypes")
+    void create_primitiveStorage_shouldCreateCorrectTypeOfCar(CarType type, Class<?> clazz) {
+        //given
+        //when
+        Car result = CarFactory.create(type, StorageType.PRIMITIVE);
+
+        //then
+        assertThat(result).isInstanceOf(clazz);
+        assertThat(result.getReservations()).isEmpty();
+    }
+
     private static Stream<Arguments> provideCarTypes() {
         return Stream.of(
                 Arguments.of(CarType.SEDAN, Sedan.class),